@@ -2,10 +2,12 @@ package com.kshrd.reactiveredis;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
 
 @SpringBootApplication
 @EnableR2dbcRepositories
+@ConfigurationPropertiesScan
 public class ReactiveRedisApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,9 @@
+package com.kshrd.reactiveredis.base;
+
+public record CursorInfo(
+        String sort,
+        int limit,
+        String nextCursor,
+        boolean hasNext
+) {
+}
@@ -0,0 +1,7 @@
+package com.kshrd.reactiveredis.base;
+
+public record CursorPagedResponse<T>(
+        T items,
+        CursorInfo pagination
+) {
+}
@@ -0,0 +1,468 @@
+package com.kshrd.reactiveredis.common.codec;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kshrd.reactiveredis.common.enumeration.CacheCodecFormat;
+import com.kshrd.reactiveredis.model.dto.CachedMovie;
+import com.kshrd.reactiveredis.model.response.MovieResponse;
+import com.kshrd.reactiveredis.model.response.ReviewResponse;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Redis serializer for cached movie entries.
+ * <p>
+ * The binary layout is a fixed header followed by the movie body:
+ * <pre>
+ * magic (1) | schema (1) | flags (1) | version (8) | expiresAt (8) | recomputeMillis (8) | body
+ * </pre>
+ * The version sits at a fixed offset so the cache's compare-and-set script
+ * can read it with GETRANGE; schema 1 entries, which predate it, read as 0.
+ * The body holds a presence bitmask and only the non-null fields, and is
+ * deflated when it is larger than the compression threshold. In the JSON
+ * write format the body is the movie as JSON instead, flagged, behind the
+ * same header: the header is always written, as without it the
+ * compare-and-set script could not see the version and would let an older
+ * write replace a newer entry. An entry without a movie is a tombstone: the
+ * header alone, flagged. Values that do not start with the magic byte are
+ * read as JSON, either the previous {@link CachedMovie} JSON or a bare
+ * {@link MovieResponse}, so entries written before a deploy stay readable.
+ */
+public class CachedMovieRedisSerializer implements RedisSerializer<CachedMovie> {
+
+    public static final byte MAGIC = (byte) 0xC5;
+    public static final byte SCHEMA_V1 = 1;
+    public static final byte SCHEMA_V2 = 2;
+
+    private static final byte FLAG_DEFLATED = 1;
+    private static final byte FLAG_TOMBSTONE = 1 << 1;
+    private static final byte FLAG_JSON_BODY = 1 << 2;
+
+    private static final Set<String> ENVELOPE_FIELDS = Set.of("movie", "version", "expiresAt", "recomputeMillis");
+
+    private static final int MOVIE_ID = 1;
+    private static final int MOVIE_TITLE = 1 << 1;
+    private static final int MOVIE_DESCRIPTION = 1 << 2;
+    private static final int MOVIE_RELEASE_YEAR = 1 << 3;
+    private static final int MOVIE_GENRE = 1 << 4;
+    private static final int MOVIE_DIRECTOR = 1 << 5;
+    private static final int MOVIE_RATING = 1 << 6;
+    private static final int MOVIE_DURATION = 1 << 7;
+    private static final int MOVIE_REVIEWS = 1 << 8;
+    private static final int MOVIE_CREATED_AT = 1 << 9;
+    private static final int MOVIE_UPDATED_AT = 1 << 10;
+
+    private static final int REVIEW_ID = 1;
+    private static final int REVIEW_MOVIE_ID = 1 << 1;
+    private static final int REVIEW_REVIEWER = 1 << 2;
+    private static final int REVIEW_RATING = 1 << 3;
+    private static final int REVIEW_COMMENT = 1 << 4;
+    private static final int REVIEW_CREATED_AT = 1 << 5;
+
+    private final ObjectMapper objectMapper;
+
+    private final CacheCodecFormat writeFormat;
+
+    private final int compressionThreshold;
+
+    private final int maxBodySize;
+
+    public CachedMovieRedisSerializer(ObjectMapper objectMapper, CacheCodecFormat writeFormat,
+                                      int compressionThreshold, int maxBodySize) {
+        this.objectMapper = objectMapper.copy()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.writeFormat = writeFormat;
+        this.compressionThreshold = compressionThreshold;
+        this.maxBodySize = maxBodySize;
+    }
+
+    @Override
+    public byte[] serialize(CachedMovie entry) throws SerializationException {
+        if (entry == null) {
+            return null;
+        }
+        boolean tombstone = entry.getMovie() == null;
+
+        try {
+            boolean json = writeFormat == CacheCodecFormat.JSON && !tombstone;
+            byte flags;
+            byte[] body;
+            if (tombstone) {
+                flags = FLAG_TOMBSTONE;
+                body = new byte[0];
+            } else if (json) {
+                flags = FLAG_JSON_BODY;
+                body = objectMapper.writeValueAsBytes(entry.getMovie());
+            } else {
+                body = writeMovie(entry.getMovie());
+                boolean deflated = body.length > compressionThreshold;
+                flags = deflated ? FLAG_DEFLATED : 0;
+                if (deflated) {
+                    body = deflate(body);
+                }
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(27 + body.length);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(MAGIC);
+            out.writeByte(SCHEMA_V2);
+            out.writeByte(flags);
+            out.writeLong(entry.getVersion());
+            out.writeLong(entry.getExpiresAt());
+            out.writeLong(entry.getRecomputeMillis());
+            out.write(body);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Could not write cached movie", e);
+        }
+    }
+
+    @Override
+    public CachedMovie deserialize(byte[] bytes) throws SerializationException {
+        return bytes == null ? null : deserialize(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Decode an entry straight from the buffer Redis handed back, without
+     * copying the value into an intermediate array first
+     */
+    public CachedMovie deserialize(ByteBuffer buffer) throws SerializationException {
+        if (buffer == null || !buffer.hasRemaining()) {
+            return null;
+        }
+
+        ByteBuffer in = buffer.duplicate();
+        try {
+            if (in.get(in.position()) != MAGIC) {
+                return readJson(in);
+            }
+
+            in.get();
+            byte schema = in.get();
+            if (schema != SCHEMA_V1 && schema != SCHEMA_V2) {
+                throw new SerializationException("Unsupported cached movie schema " + schema);
+            }
+            byte flags = in.get();
+            long version = schema == SCHEMA_V1 ? 0 : in.getLong();
+            long expiresAt = in.getLong();
+            long recomputeMillis = in.getLong();
+
+            if ((flags & FLAG_TOMBSTONE) != 0) {
+                return CachedMovie.builder()
+                        .version(version)
+                        .expiresAt(expiresAt)
+                        .recomputeMillis(recomputeMillis)
+                        .build();
+            }
+
+            MovieResponse movie;
+            if ((flags & FLAG_JSON_BODY) != 0) {
+                movie = objectMapper.readValue(bufferStream(in), MovieResponse.class);
+            } else {
+                movie = readMovie((flags & FLAG_DEFLATED) != 0 ? inflate(in) : in);
+            }
+
+            return CachedMovie.builder()
+                    .movie(movie)
+                    .version(version)
+                    .expiresAt(expiresAt)
+                    .recomputeMillis(recomputeMillis)
+                    .build();
+        } catch (IOException | DataFormatException | BufferUnderflowException
+                 | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            // Corrupt or truncated bytes surface as any of these; all read as a bad entry
+            throw new SerializationException("Could not read cached movie", e);
+        }
+    }
+
+    /**
+     * Buffer-level writer for the serialization context
+     */
+    public ByteBuffer write(CachedMovie entry) {
+        return ByteBuffer.wrap(serialize(entry));
+    }
+
+    private CachedMovie readJson(ByteBuffer in) throws IOException {
+        // The first field name tells the envelope apart from a bare MovieResponse,
+        // so the value is bound directly instead of going through a JsonNode tree
+        String firstField;
+        try (JsonParser parser = objectMapper.createParser(bufferStream(in.duplicate()))) {
+            parser.nextToken();
+            firstField = parser.nextFieldName();
+        }
+
+        if (ENVELOPE_FIELDS.contains(firstField)) {
+            return objectMapper.readValue(bufferStream(in), CachedMovie.class);
+        }
+
+        // Bare MovieResponse: no expiry metadata, so it is never refreshed early
+        return CachedMovie.builder()
+                .movie(objectMapper.readValue(bufferStream(in), MovieResponse.class))
+                .build();
+    }
+
+    private static InputStream bufferStream(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return new ByteArrayInputStream(
+                    buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+
+        return new InputStream() {
+            @Override
+            public int read() {
+                return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] target, int offset, int length) {
+                if (!buffer.hasRemaining()) {
+                    return -1;
+                }
+                int count = Math.min(length, buffer.remaining());
+                buffer.get(target, offset, count);
+                return count;
+            }
+        };
+    }
+
+    private static byte[] writeMovie(MovieResponse movie) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        int mask = 0;
+        if (movie.getId() != null) mask |= MOVIE_ID;
+        if (movie.getTitle() != null) mask |= MOVIE_TITLE;
+        if (movie.getDescription() != null) mask |= MOVIE_DESCRIPTION;
+        if (movie.getReleaseYear() != null) mask |= MOVIE_RELEASE_YEAR;
+        if (movie.getGenre() != null) mask |= MOVIE_GENRE;
+        if (movie.getDirector() != null) mask |= MOVIE_DIRECTOR;
+        if (movie.getRating() != null) mask |= MOVIE_RATING;
+        if (movie.getDurationMinutes() != null) mask |= MOVIE_DURATION;
+        if (movie.getReviews() != null) mask |= MOVIE_REVIEWS;
+        if (movie.getCreatedAt() != null) mask |= MOVIE_CREATED_AT;
+        if (movie.getUpdatedAt() != null) mask |= MOVIE_UPDATED_AT;
+        out.writeShort(mask);
+
+        if ((mask & MOVIE_ID) != 0) writeVarLong(out, movie.getId());
+        if ((mask & MOVIE_TITLE) != 0) writeString(out, movie.getTitle());
+        if ((mask & MOVIE_DESCRIPTION) != 0) writeString(out, movie.getDescription());
+        if ((mask & MOVIE_RELEASE_YEAR) != 0) writeVarLong(out, movie.getReleaseYear());
+        if ((mask & MOVIE_GENRE) != 0) writeString(out, movie.getGenre());
+        if ((mask & MOVIE_DIRECTOR) != 0) writeString(out, movie.getDirector());
+        if ((mask & MOVIE_RATING) != 0) writeDecimal(out, movie.getRating());
+        if ((mask & MOVIE_DURATION) != 0) writeVarLong(out, movie.getDurationMinutes());
+        if ((mask & MOVIE_REVIEWS) != 0) {
+            writeVarLong(out, movie.getReviews().size());
+            for (ReviewResponse review : movie.getReviews()) {
+                writeReview(out, review);
+            }
+        }
+        if ((mask & MOVIE_CREATED_AT) != 0) writeDateTime(out, movie.getCreatedAt());
+        if ((mask & MOVIE_UPDATED_AT) != 0) writeDateTime(out, movie.getUpdatedAt());
+
+        return bytes.toByteArray();
+    }
+
+    private static MovieResponse readMovie(ByteBuffer in) {
+        int mask = in.getShort() & 0xFFFF;
+        MovieResponse movie = new MovieResponse();
+
+        if ((mask & MOVIE_ID) != 0) movie.setId(readVarLong(in));
+        if ((mask & MOVIE_TITLE) != 0) movie.setTitle(readString(in));
+        if ((mask & MOVIE_DESCRIPTION) != 0) movie.setDescription(readString(in));
+        if ((mask & MOVIE_RELEASE_YEAR) != 0) movie.setReleaseYear((int) readVarLong(in));
+        if ((mask & MOVIE_GENRE) != 0) movie.setGenre(readString(in));
+        if ((mask & MOVIE_DIRECTOR) != 0) movie.setDirector(readString(in));
+        if ((mask & MOVIE_RATING) != 0) movie.setRating(readDecimal(in));
+        if ((mask & MOVIE_DURATION) != 0) movie.setDurationMinutes((int) readVarLong(in));
+        if ((mask & MOVIE_REVIEWS) != 0) {
+            // Every review takes at least one byte, which bounds the count before allocating
+            int count = readLength(in);
+            List<ReviewResponse> reviews = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                reviews.add(readReview(in));
+            }
+            movie.setReviews(reviews);
+        }
+        if ((mask & MOVIE_CREATED_AT) != 0) movie.setCreatedAt(readDateTime(in));
+        if ((mask & MOVIE_UPDATED_AT) != 0) movie.setUpdatedAt(readDateTime(in));
+
+        return movie;
+    }
+
+    private static void writeReview(DataOutputStream out, ReviewResponse review) throws IOException {
+        int mask = 0;
+        if (review.getId() != null) mask |= REVIEW_ID;
+        if (review.getMovieId() != null) mask |= REVIEW_MOVIE_ID;
+        if (review.getReviewerName() != null) mask |= REVIEW_REVIEWER;
+        if (review.getRating() != null) mask |= REVIEW_RATING;
+        if (review.getComment() != null) mask |= REVIEW_COMMENT;
+        if (review.getCreatedAt() != null) mask |= REVIEW_CREATED_AT;
+        out.writeByte(mask);
+
+        if ((mask & REVIEW_ID) != 0) writeVarLong(out, review.getId());
+        if ((mask & REVIEW_MOVIE_ID) != 0) writeVarLong(out, review.getMovieId());
+        if ((mask & REVIEW_REVIEWER) != 0) writeString(out, review.getReviewerName());
+        if ((mask & REVIEW_RATING) != 0) writeVarLong(out, review.getRating());
+        if ((mask & REVIEW_COMMENT) != 0) writeString(out, review.getComment());
+        if ((mask & REVIEW_CREATED_AT) != 0) writeDateTime(out, review.getCreatedAt());
+    }
+
+    private static ReviewResponse readReview(ByteBuffer in) {
+        int mask = in.get() & 0xFF;
+        ReviewResponse review = new ReviewResponse();
+
+        if ((mask & REVIEW_ID) != 0) review.setId(readVarLong(in));
+        if ((mask & REVIEW_MOVIE_ID) != 0) review.setMovieId(readVarLong(in));
+        if ((mask & REVIEW_REVIEWER) != 0) review.setReviewerName(readString(in));
+        if ((mask & REVIEW_RATING) != 0) review.setRating((int) readVarLong(in));
+        if ((mask & REVIEW_COMMENT) != 0) review.setComment(readString(in));
+        if ((mask & REVIEW_CREATED_AT) != 0) review.setCreatedAt(readDateTime(in));
+
+        return review;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = readLength(in);
+        if (in.hasArray()) {
+            String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+            return value;
+        }
+        byte[] utf8 = new byte[length];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        writeVarLong(out, value.scale());
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        writeVarLong(out, unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(ByteBuffer in) {
+        int scale = (int) readVarLong(in);
+        byte[] unscaled = new byte[readLength(in)];
+        in.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        writeVarLong(out, value.toEpochSecond(ZoneOffset.UTC));
+        writeVarLong(out, value.getNano());
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer in) {
+        long epochSecond = readVarLong(in);
+        int nano = (int) readVarLong(in);
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    /**
+     * A length or count read from the entry, checked against the bytes left
+     * before anything is allocated for it; corrupt values must not wrap or
+     * ask for more memory than the entry could possibly hold
+     */
+    private static int readLength(ByteBuffer in) {
+        long length = readVarLong(in);
+        if (length < 0 || length > in.remaining()) {
+            throw new SerializationException("Length " + length + " exceeds the cached movie");
+        }
+        return (int) length;
+    }
+
+    /**
+     * Zig-zag encoded variable-length long: small magnitudes take one or two bytes
+     */
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long zigZag = (value << 1) ^ (value >> 63);
+        while ((zigZag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigZag & 0x7F) | 0x80));
+            zigZag >>>= 7;
+        }
+        out.writeByte((int) zigZag);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long zigZag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.get() & 0xFF;
+            zigZag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigZag >>> 1) ^ -(zigZag & 1);
+            }
+        }
+        throw new SerializationException("Malformed variable-length number");
+    }
+
+    private static byte[] deflate(byte[] body) throws IOException {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(body);
+            deflater.finish();
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 2 + 8);
+            DataOutputStream out = new DataOutputStream(bytes);
+            writeVarLong(out, body.length);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                int written = deflater.deflate(buffer);
+                out.write(buffer, 0, written);
+            }
+            return bytes.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private ByteBuffer inflate(ByteBuffer compressed) throws DataFormatException {
+        long length = readVarLong(compressed);
+        if (length < 0 || length > maxBodySize) {
+            throw new DataFormatException("Inflated movie of " + length + " bytes exceeds " + maxBodySize);
+        }
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] body = new byte[(int) length];
+            int read = 0;
+            while (read < body.length && !inflater.finished()) {
+                int inflated = inflater.inflate(body, read, body.length - read);
+                if (inflated == 0 && inflater.needsInput()) {
+                    throw new DataFormatException("Truncated compressed movie");
+                }
+                read += inflated;
+            }
+            return ByteBuffer.wrap(body);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.kshrd.reactiveredis.common.constant;
+
+import com.kshrd.reactiveredis.model.response.MovieResponse;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Tags that derived cache entries are recorded under, and which tags each
+ * kind of movie mutation invalidates. An entry is tagged with everything its
+ * result depends on, so a mutation only names what it changed:
+ * <ul>
+ *   <li>{@code movie:<id>} - entries that embed that movie's data or its reviews</li>
+ *   <li>{@code genre:<genre>} - entries that depend on which movies are in a genre</li>
+ *   <li>{@code id-order} - entries that depend on the set of movie ids</li>
+ *   <li>{@code rating-order} - entries that depend on the order of movies by rating</li>
+ * </ul>
+ */
+public final class CacheTag {
+
+    public static final String ID_ORDER = "id-order";
+    public static final String RATING_ORDER = "rating-order";
+
+    private CacheTag() {
+    }
+
+    public static String movie(Long movieId) {
+        return "movie:" + movieId;
+    }
+
+    public static String genre(String genre) {
+        return "genre:" + genre;
+    }
+
+    /**
+     * New movies change the id set, the rating order and their genres
+     */
+    public static Set<String> created(Collection<MovieResponse> movies) {
+        Set<String> tags = new LinkedHashSet<>();
+        tags.add(ID_ORDER);
+        tags.add(RATING_ORDER);
+        movies.stream()
+                .map(MovieResponse::getGenre)
+                .filter(Objects::nonNull)
+                .forEach(genre -> tags.add(genre(genre)));
+        return tags;
+    }
+
+    /**
+     * An update changes the movie itself, possibly its rating, and the genres it left and joined
+     */
+    public static Set<String> updated(String previousGenre, MovieResponse movie) {
+        Set<String> tags = new LinkedHashSet<>();
+        tags.add(movie(movie.getId()));
+        tags.add(RATING_ORDER);
+        if (previousGenre != null) {
+            tags.add(genre(previousGenre));
+        }
+        if (movie.getGenre() != null) {
+            tags.add(genre(movie.getGenre()));
+        }
+        return tags;
+    }
+
+    /**
+     * A deletion affects everything the movie was part of
+     */
+    public static Set<String> deleted(Long movieId, String genre) {
+        Set<String> tags = new LinkedHashSet<>();
+        tags.add(movie(movieId));
+        tags.add(ID_ORDER);
+        tags.add(RATING_ORDER);
+        if (genre != null) {
+            tags.add(genre(genre));
+        }
+        return tags;
+    }
+}
@@ -3,5 +3,22 @@ package com.kshrd.reactiveredis.common.constant;
 public class MovieConstant {
     public static final String KEY_PREFIX = "user:";
     public static final String CACHE_KEY_PREFIX = "movie:";
-    public static final String ALL_MOVIES_KEY = "movies:all";
+    public static final String CATALOG_INDEX_KEY = "movies:index";
+    public static final String CATALOG_DIRTY_KEY = "movies:index:dirty";
+    public static final String CATALOG_LAST_WRITE_KEY = "movies:index:last-write";
+    public static final String GENRE_INDEX_PREFIX = "movies:genre:";
+    public static final String RATING_INDEX_KEY = "movies:rating";
+    public static final String MOVIE_PAGE_PREFIX = "movies:page:";
+    public static final String MOVIE_DETAILS_PREFIX = "movies:details:";
+    public static final String TAG_PREFIX = "tag:";
+    public static final String QUERY_RESULT_PREFIX = "movies:query:";
+    public static final String QUERY_GENERATION_PREFIX = "movies:generation:";
+    public static final String MOVIE_FILTER_KEY = "movies:filter";
+    public static final String MISSING_MOVIE_PREFIX = "movies:missing:";
+    public static final String MOVIE_CHANGES_STREAM = "movies:changes";
+    public static final String SECONDARY_INDEX_READY_KEY = "movies:secondary:ready";
+    public static final String STALE_SUFFIX = ":stale";
+    public static final String LEASE_SUFFIX = ":lease";
+    public static final String INVALIDATION_CHANNEL = "movies:invalidation";
+    public static final String INVALIDATE_ALL = "*";
 }
@@ -0,0 +1,9 @@
+package com.kshrd.reactiveredis.common.enumeration;
+
+/**
+ * Body format of cached movie entries; both sit behind the same versioned header
+ */
+public enum CacheCodecFormat {
+    BINARY,
+    JSON
+}
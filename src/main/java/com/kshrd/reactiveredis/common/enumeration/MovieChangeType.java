@@ -0,0 +1,7 @@
+package com.kshrd.reactiveredis.common.enumeration;
+
+public enum MovieChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
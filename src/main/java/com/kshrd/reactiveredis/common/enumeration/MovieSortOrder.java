@@ -0,0 +1,6 @@
+package com.kshrd.reactiveredis.common.enumeration;
+
+public enum MovieSortOrder {
+    ID,
+    RATING
+}
@@ -0,0 +1,113 @@
+package com.kshrd.reactiveredis.common.property;
+
+import com.kshrd.reactiveredis.common.enumeration.CacheCodecFormat;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "movie.cache")
+public class MovieCacheProperties {
+
+    private NearCache near = new NearCache();
+
+    private Lease lease = new Lease();
+
+    private Scan scan = new Scan();
+
+    private RefreshAhead refreshAhead = new RefreshAhead();
+
+    private GetBatching getBatching = new GetBatching();
+
+    private Codec codec = new Codec();
+
+    private CatalogInvalidation catalogInvalidation = new CatalogInvalidation();
+
+    /**
+     * In-process L1 tier sitting in front of Redis
+     */
+    @Data
+    public static class NearCache {
+        private long maximumSize = 1_000;
+        private Duration ttl = Duration.ofSeconds(30);
+    }
+
+    /**
+     * Cluster-wide lease guarding expensive cache rebuilds
+     */
+    @Data
+    public static class Lease {
+        /** Lease expiry; a holder that dies releases it implicitly after this */
+        private Duration timeout = Duration.ofSeconds(10);
+        /** How often non-holders poll for the rebuilt value */
+        private Duration pollInterval = Duration.ofMillis(100);
+        /** How long a stale copy outlives the fresh entry */
+        private Duration staleTtl = Duration.ofHours(1);
+    }
+
+    /**
+     * Cursor-based keyspace walks used instead of KEYS
+     */
+    @Data
+    public static class Scan {
+        /** COUNT hint passed to every SCAN call */
+        private long count = 500;
+        /** Maximum number of keys per UNLINK */
+        private int unlinkBatchSize = 500;
+    }
+
+    /**
+     * Probabilistic early refresh (XFetch) and TTL jitter
+     */
+    @Data
+    public static class RefreshAhead {
+        /** Values above 1 favour earlier refreshes, below 1 later ones */
+        private double beta = 1.0;
+        /** Fraction by which written TTLs are randomly spread, e.g. 0.1 for +/-10% */
+        private double ttlJitter = 0.1;
+        /** Recompute time assumed for entries written without a measured load */
+        private Duration defaultRecomputeTime = Duration.ofMillis(50);
+    }
+
+    /**
+     * Micro-batching of concurrent single-key GETs into MGET
+     */
+    @Data
+    public static class GetBatching {
+        private boolean enabled = true;
+        /** How long to wait for more GETs before sending a batch */
+        private Duration window = Duration.ofMillis(1);
+        /** Batch is sent as soon as it holds this many GETs */
+        private int maxBatchSize = 64;
+        /** A batched GET still unanswered after this fails, so callers never hang */
+        private Duration timeout = Duration.ofSeconds(1);
+    }
+
+    /**
+     * Encoding of cached movie values; both formats are always readable
+     */
+    @Data
+    public static class Codec {
+        private CacheCodecFormat format = CacheCodecFormat.BINARY;
+        /** Binary bodies larger than this many bytes are deflated */
+        private int compressionThreshold = 512;
+        /** Deflated bodies claiming to inflate beyond this many bytes are rejected as corrupt */
+        private int maxBodySize = 1_048_576;
+        /** Payloads of at least this many bytes are (de)serialized off the event loop */
+        private int offloadThreshold = 16_384;
+        /** Worker threads for offloaded (de)serialization */
+        private int offloadThreads = Runtime.getRuntime().availableProcessors();
+        /** Offloaded work waiting beyond this is run inline instead */
+        private int offloadQueueCapacity = 256;
+    }
+
+    /**
+     * Debouncing of catalog index invalidations under write bursts
+     */
+    @Data
+    public static class CatalogInvalidation {
+        /** How long after the first unapplied write the index may still be served; zero invalidates at once */
+        private Duration window = Duration.ofSeconds(1);
+    }
+}
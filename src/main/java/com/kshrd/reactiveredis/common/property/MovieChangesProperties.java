@@ -0,0 +1,20 @@
+package com.kshrd.reactiveredis.common.property;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "movie.changes")
+public class MovieChangesProperties {
+
+    /** Approximate number of change events kept in the stream, bounding how far back a feed can resume */
+    private long maxLength = 10_000;
+
+    /** Events read per XREAD; also the most a slow subscriber has buffered at once */
+    private int batchSize = 100;
+
+    /** Pause before reading again once a subscriber has caught up with the stream */
+    private Duration pollInterval = Duration.ofSeconds(1);
+}
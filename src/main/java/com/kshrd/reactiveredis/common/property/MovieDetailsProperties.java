@@ -0,0 +1,24 @@
+package com.kshrd.reactiveredis.common.property;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "movie.details")
+public class MovieDetailsProperties {
+
+    /** Reviews shown on the details page */
+    private int reviewPageSize = 10;
+
+    /** Limit for each part of the details page; a late review part is left out rather than holding up the page */
+    private Duration partTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Lifetime of a cached details page; changes to the movie or its reviews drop it sooner.
+     * Kept as short as the other tagged entries, as it also bounds a page whose reviews
+     * were read before a review change but written after it.
+     */
+    private Duration ttl = Duration.ofMinutes(1);
+}
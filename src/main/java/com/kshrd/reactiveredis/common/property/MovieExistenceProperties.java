@@ -0,0 +1,23 @@
+package com.kshrd.reactiveredis.common.property;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "movie.existence")
+public class MovieExistenceProperties {
+
+    /** Movie count the Bloom filter is sized for; beyond it the false positive rate climbs */
+    private long expectedIds = 1_000_000;
+
+    /** Share of unknown ids the filter lets through to the cache and database */
+    private double falsePositiveRate = 0.01;
+
+    /** Full rebuild from the table, clearing bits of deleted movies; one node rebuilds per interval */
+    private Duration rebuildInterval = Duration.ofHours(1);
+
+    /** How long an id found missing is answered as missing without asking the database again */
+    private Duration missingTtl = Duration.ofSeconds(30);
+}
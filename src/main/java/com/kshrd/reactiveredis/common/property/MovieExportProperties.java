@@ -0,0 +1,12 @@
+package com.kshrd.reactiveredis.common.property;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "movie.export")
+public class MovieExportProperties {
+
+    /** Rows fetched from the database cursor per round trip while streaming the catalog */
+    private int fetchSize = 250;
+}
@@ -0,0 +1,22 @@
+package com.kshrd.reactiveredis.common.property;
+
+import com.kshrd.reactiveredis.repository.MovieBulkRepository;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "movie.ingest")
+public class MovieIngestProperties {
+
+    /**
+     * Movies per multi-row INSERT, pipelined cache write and catalog invalidation;
+     * bounded by the bind parameters one INSERT may carry
+     */
+    @Min(1)
+    @Max(MovieBulkRepository.MAX_INSERT_BATCH)
+    private int batchSize = 500;
+}
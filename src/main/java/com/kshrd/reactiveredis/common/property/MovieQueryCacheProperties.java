@@ -0,0 +1,18 @@
+package com.kshrd.reactiveredis.common.property;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "movie.query-cache")
+public class MovieQueryCacheProperties {
+
+    /** Lifetime of a cached query result; results of superseded generations are left to expire */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /** Limits are rounded up to the nearest bucket, so nearby limits share one cached result */
+    private List<Integer> limitBuckets = List.of(10, 25, 50, 100);
+}
@@ -0,0 +1,15 @@
+package com.kshrd.reactiveredis.common.property;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "movie.reviews")
+public class MovieReviewProperties {
+
+    /** Latest reviews attached to each movie when a list includes reviews */
+    private int perMovieInLists = 3;
+
+    /** Movies whose reviews are loaded by one query when an unbounded list includes reviews */
+    private int batchSize = 500;
+}
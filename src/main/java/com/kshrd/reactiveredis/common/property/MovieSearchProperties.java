@@ -0,0 +1,14 @@
+package com.kshrd.reactiveredis.common.property;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "movie.search")
+public class MovieSearchProperties {
+
+    /** Full reload of the in-process title index, bounding drift from missed change messages */
+    private Duration reloadInterval = Duration.ofMinutes(10);
+}
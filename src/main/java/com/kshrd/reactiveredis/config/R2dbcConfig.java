@@ -10,6 +10,7 @@ import org.springframework.core.io.ClassPathResource;
 import org.springframework.r2dbc.connection.R2dbcTransactionManager;
 import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
 import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.transaction.reactive.TransactionalOperator;
 
 import static io.r2dbc.spi.ConnectionFactoryOptions.*;
 
@@ -35,6 +36,11 @@ public class R2dbcConfig {
         return new R2dbcTransactionManager(connectionFactory);
     }
 
+    @Bean
+    public TransactionalOperator transactionalOperator(R2dbcTransactionManager transactionManager) {
+        return TransactionalOperator.create(transactionManager);
+    }
+
 //    @Bean
 //    public ConnectionFactoryInitializer initializer(ConnectionFactory connectionFactory) {
 //        ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
@@ -2,7 +2,8 @@ package com.kshrd.reactiveredis.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.kshrd.reactiveredis.model.response.MovieResponse;
+import com.kshrd.reactiveredis.common.codec.CachedMovieRedisSerializer;
+import com.kshrd.reactiveredis.common.property.MovieCacheProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -10,6 +11,8 @@ import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.serializer.*;
 
+import java.nio.ByteBuffer;
+
 @Configuration
 public class RedisConfig {
 
@@ -44,21 +47,34 @@ public class RedisConfig {
     }
 
     /**
-     * Alternative: ReactiveRedisTemplate for storing MovieResponse objects directly
-     * Useful if you want Redis to handle serialization automatically
+     * Codec for cached movie entries, compact binary unless configured otherwise
+     */
+    @Bean
+    public CachedMovieRedisSerializer cachedMovieRedisSerializer(
+            ObjectMapper objectMapper,
+            MovieCacheProperties properties) {
+
+        return new CachedMovieRedisSerializer(
+                objectMapper,
+                properties.getCodec().getFormat(),
+                properties.getCodec().getCompressionThreshold(),
+                properties.getCodec().getMaxBodySize()
+        );
+    }
+
+    /**
+     * ReactiveRedisTemplate for cached movie entries, kept as raw bytes.
+     * Values are encoded and decoded by MovieCacheCodec, which decides whether
+     * the work is cheap enough to run on the event loop.
      */
     @Bean(name = "movieRedisTemplate")
-    public <T> ReactiveRedisTemplate<String, MovieResponse> redisTemplate(
+    public ReactiveRedisTemplate<String, ByteBuffer> redisTemplate(
             ReactiveRedisConnectionFactory connectionFactory) {
 
-        JacksonJsonRedisSerializer<MovieResponse> serializer =
-                new JacksonJsonRedisSerializer<>(MovieResponse.class);
-
-        RedisSerializationContext<String, MovieResponse> context =
+        RedisSerializationContext<String, ByteBuffer> context =
                 RedisSerializationContext
-                        .<String, MovieResponse>newSerializationContext(RedisSerializer.string())
-                        .value(serializer)
-                        .hashValue(serializer)
+                        .<String, ByteBuffer>newSerializationContext(RedisSerializer.string())
+                        .value(RedisSerializationContext.SerializationPair.byteBuffer())
                         .build();
 
         return new ReactiveRedisTemplate<>(connectionFactory, context);
@@ -1,8 +1,17 @@
 package com.kshrd.reactiveredis.controller;
 
 import com.kshrd.reactiveredis.base.APIResponse;
+import com.kshrd.reactiveredis.base.CursorPagedResponse;
+import com.kshrd.reactiveredis.base.PagedResponse;
+import com.kshrd.reactiveredis.common.enumeration.MovieSortOrder;
+import com.kshrd.reactiveredis.model.request.MovieBatchRequest;
 import com.kshrd.reactiveredis.model.request.MovieRequest;
+import com.kshrd.reactiveredis.model.response.BulkIngestProgress;
+import com.kshrd.reactiveredis.model.response.CacheClearProgress;
+import com.kshrd.reactiveredis.model.response.MovieChangeEvent;
+import com.kshrd.reactiveredis.model.response.MovieDetailsResponse;
 import com.kshrd.reactiveredis.model.response.MovieResponse;
+import com.kshrd.reactiveredis.model.response.MovieSuggestion;
 import com.kshrd.reactiveredis.service.MovieService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -18,11 +27,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.List;
 
 import static com.kshrd.reactiveredis.utils.ResponseUtil.buildResponse;
 
@@ -63,25 +74,79 @@ public class MovieController {
 //        );
     }
 
+    // ===================== BULK CREATE =====================
+
+    @Operation(
+            summary = "Bulk-create movies from NDJSON",
+            description = "Accepts one MovieRequest per line and streams back one progress record per batch"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Bulk ingest progress stream",
+            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE)
+    )
+    @PostMapping(
+            value = "/bulk",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public Flux<BulkIngestProgress> bulkCreateMovies(
+            @RequestBody Flux<MovieRequest> requests) {
+
+        log.info("Received bulk movie ingest");
+        return movieService.bulkCreateMovies(requests);
+    }
+
     // ===================== READ =====================
 
-    @Operation(summary = "Get all movies")
+    @Operation(summary = "Get movies page by page")
     @ApiResponse(
             responseCode = "200",
-            description = "List of movies",
+            description = "One page of movies with pagination info",
             content = @Content(
                     mediaType = MediaType.APPLICATION_JSON_VALUE,
-                    array = @ArraySchema(schema = @Schema(implementation = MovieResponse.class))
+                    schema = @Schema(implementation = PagedResponse.class)
             )
     )
     @GetMapping
-    public ResponseEntity<APIResponse<Flux<MovieResponse>>> getAllMovies() {
+    public ResponseEntity<APIResponse<Mono<PagedResponse<List<MovieResponse>>>>> getAllMovies(
+            @Parameter(description = "Page number, starting at 1", example = "1")
+            @RequestParam(defaultValue = "1") int page,
+            @Parameter(description = "Page size (max 100)", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Related data to embed; 'reviews' adds each movie's latest reviews", example = "reviews")
+            @RequestParam(required = false) List<String> include) {
 
-        log.info("Received request to get all movies");
+        log.info("Received request to get movies page {} (size {})", page, size);
 
         return buildResponse(
                 "Movies retrieved successfully",
-                movieService.getAllMovies(),
+                movieService.getMoviePage(page, size, includesReviews(include)),
+                HttpStatus.OK
+        );
+    }
+
+    @Operation(
+            summary = "Get movies after a cursor",
+            description = "Keyset pagination: pass the nextCursor of the previous page as 'after'; "
+                    + "selected whenever 'limit' is given"
+    )
+    @GetMapping(params = "limit")
+    public ResponseEntity<APIResponse<Mono<CursorPagedResponse<List<MovieResponse>>>>> getMoviesAfter(
+            @Parameter(description = "Cursor returned by the previous page; omit for the first page", example = "20")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Page size (max 100)", example = "20")
+            @RequestParam int limit,
+            @Parameter(description = "Sort order: ID, or RATING (best first, unrated last)", example = "ID")
+            @RequestParam(defaultValue = "ID") MovieSortOrder sort,
+            @Parameter(description = "Related data to embed; 'reviews' adds each movie's latest reviews", example = "reviews")
+            @RequestParam(required = false) List<String> include) {
+
+        log.info("Received request to get {} movies after {} in {} order", limit, after, sort);
+
+        return buildResponse(
+                "Movies retrieved successfully",
+                movieService.getMoviesAfter(sort, after, limit, includesReviews(include)),
                 HttpStatus.OK
         );
     }
@@ -112,6 +177,51 @@ public class MovieController {
         );
     }
 
+    @Operation(
+            summary = "Export the whole catalog",
+            description = "Streams every movie in id order from a database cursor as NDJSON or SSE, "
+                    + "at the pace the client reads; resume with the last id received"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Movie export stream",
+            content = {
+                    @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE),
+                    @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)
+            }
+    )
+    @GetMapping(
+            value = "/export",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE}
+    )
+    public Flux<MovieResponse> exportMovies(
+            @Parameter(description = "Only movies with a greater ID", example = "0")
+            @RequestParam(defaultValue = "0") long after) {
+
+        log.info("Received catalog export request after ID {}", after);
+        return movieService.exportMovies(after);
+    }
+
+    @Operation(
+            summary = "Follow movie changes (SSE)",
+            description = "Pushes every create, update and delete as it happens. Each event id is a "
+                    + "position in the feed; reconnect with it as 'since' or Last-Event-ID to resume"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Movie change event stream",
+            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)
+    )
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<MovieChangeEvent>> streamChanges(
+            @Parameter(description = "Resume after this event id; omit to start from now", example = "1718000000000-0")
+            @RequestParam(required = false) String since,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        log.info("Received change feed subscription since {}", since != null ? since : lastEventId);
+        return movieService.getChanges(since != null ? since : lastEventId);
+    }
+
     // ===================== GET BY ID =====================
 
     @Operation(summary = "Get movie by ID")
@@ -133,6 +243,29 @@ public class MovieController {
         );
     }
 
+    // ===================== BATCH GET =====================
+
+    @Operation(
+            summary = "Get several movies by ID",
+            description = "Resolves all IDs with one cache lookup; unknown IDs are skipped"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Movies found, in request order"),
+            @ApiResponse(responseCode = "400", description = "Invalid input")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<APIResponse<Mono<List<MovieResponse>>>> getMoviesByIds(
+            @Valid @RequestBody MovieBatchRequest request) {
+
+        log.info("Received request to get {} movies by ID", request.getIds().size());
+
+        return buildResponse(
+                "Movies retrieved successfully",
+                movieService.getMoviesByIds(request.getIds()),
+                HttpStatus.OK
+        );
+    }
+
     // ===================== GET WITH REVIEWS =====================
 
     @Operation(summary = "Get movie with reviews")
@@ -149,6 +282,22 @@ public class MovieController {
         );
     }
 
+    // ===================== DETAILS =====================
+
+    @Operation(summary = "Get movie details with latest reviews and review statistics")
+    @GetMapping("/{id}/details")
+    public ResponseEntity<APIResponse<Mono<MovieDetailsResponse>>> getMovieDetails(
+            @PathVariable Long id) {
+
+        log.info("Received request to get details of movie {}", id);
+
+        return buildResponse(
+                "Movie details retrieved",
+                movieService.getMovieDetails(id),
+                HttpStatus.OK
+        );
+    }
+
     // ===================== UPDATE =====================
 
     @Operation(summary = "Update movie")
@@ -192,14 +341,31 @@ public class MovieController {
     @Operation(summary = "Search movies by title")
     @GetMapping("/search")
     public ResponseEntity<APIResponse<Flux<MovieResponse>>> searchMovies(
-            @Parameter(description = "Movie title keyword", example = "Avengers")
-            @RequestParam String title) {
+            @Parameter(description = "Movie title keyword, at least 3 characters", example = "Avengers")
+            @RequestParam String title,
+            @Parameter(description = "Related data to embed; 'reviews' adds each movie's latest reviews", example = "reviews")
+            @RequestParam(required = false) List<String> include) {
 
         log.info("Searching movies with title: {}", title);
 
         return buildResponse(
                 "Search results",
-                movieService.searchByTitle(title),
+                movieService.searchByTitle(title, includesReviews(include)),
+                HttpStatus.OK
+        );
+    }
+
+    @Operation(summary = "Suggest movie titles for a prefix, best rated first")
+    @GetMapping("/suggest")
+    public ResponseEntity<APIResponse<Mono<List<MovieSuggestion>>>> suggestMovies(
+            @Parameter(description = "Beginning of any word in the title", example = "aven")
+            @RequestParam String prefix,
+            @Parameter(description = "Max number of suggestions (1-20)", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+
+        return buildResponse(
+                "Suggestions retrieved",
+                movieService.suggest(prefix, limit),
                 HttpStatus.OK
         );
     }
@@ -209,13 +375,15 @@ public class MovieController {
     @Operation(summary = "Get movies by genre")
     @GetMapping("/genre/{genre}")
     public ResponseEntity<APIResponse<Flux<MovieResponse>>> getMoviesByGenre(
-            @PathVariable String genre) {
+            @PathVariable String genre,
+            @Parameter(description = "Related data to embed; 'reviews' adds each movie's latest reviews", example = "reviews")
+            @RequestParam(required = false) List<String> include) {
 
         log.info("Getting movies by genre: {}", genre);
 
         return buildResponse(
                 "Movies by genre retrieved",
-                movieService.getMoviesByGenre(genre),
+                movieService.getMoviesByGenre(genre, includesReviews(include)),
                 HttpStatus.OK
         );
     }
@@ -226,13 +394,15 @@ public class MovieController {
     @GetMapping("/top-rated")
     public ResponseEntity<APIResponse<Flux<MovieResponse>>> getTopRatedMovies(
             @Parameter(description = "Max number of movies", example = "10")
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "Related data to embed; 'reviews' adds each movie's latest reviews", example = "reviews")
+            @RequestParam(required = false) List<String> include) {
 
         log.info("Getting top {} rated movies", limit);
 
         return buildResponse(
                 "Top rated movies retrieved",
-                movieService.getTopRatedMovies(limit),
+                movieService.getTopRatedMovies(limit, includesReviews(include)),
                 HttpStatus.OK
         );
     }
@@ -247,7 +417,8 @@ public class MovieController {
 
         Mono<String> result =
                 movieService.clearAllCaches()
-                        .map(count -> "Cleared " + count + " cache entries");
+                        .last()
+                        .map(progress -> "Cleared " + progress.getTotalUnlinked() + " cache entries");
 
         return buildResponse(
                 "Cache cleared",
@@ -255,4 +426,25 @@ public class MovieController {
                 HttpStatus.OK
         );
     }
+
+    @Operation(
+            summary = "Clear all movie caches with progress",
+            description = "Streams one progress record per UNLINK batch as NDJSON (DELETE /cache?progress)"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Cache clear progress stream",
+            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE)
+    )
+    @DeleteMapping(value = "/cache", params = "progress", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CacheClearProgress> clearCachesWithProgress() {
+
+        log.info("Clearing all caches with progress");
+
+        return movieService.clearAllCaches();
+    }
+
+    private static boolean includesReviews(List<String> include) {
+        return include != null && include.stream().anyMatch("reviews"::equalsIgnoreCase);
+    }
 }
@@ -0,0 +1,29 @@
+package com.kshrd.reactiveredis.model.dto;
+
+import com.kshrd.reactiveredis.model.response.MovieResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cache entry for a single movie, carrying what refresh-ahead needs to decide
+ * whether a read should trigger an early reload
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedMovie {
+
+    private MovieResponse movie;
+
+    /** Version of the movie row, its updatedAt in epoch micros; an older version never replaces a newer one */
+    private long version;
+
+    /** Epoch millis at which the entry expires in Redis */
+    private long expiresAt;
+
+    /** How long loading the value took, in millis */
+    private long recomputeMillis;
+}
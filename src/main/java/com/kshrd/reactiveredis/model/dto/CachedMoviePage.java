@@ -0,0 +1,12 @@
+package com.kshrd.reactiveredis.model.dto;
+
+import java.util.List;
+
+/**
+ * The movie ids of one keyset page and the cursor of the page after it, if any
+ */
+public record CachedMoviePage(
+        List<Long> ids,
+        String nextCursor
+) {
+}
@@ -0,0 +1,17 @@
+package com.kshrd.reactiveredis.model.dto;
+
+import java.util.List;
+
+/**
+ * A query result lookup: the key of the result under the namespace generation
+ * that was current when it was read, and the cached movie ids, or null on a miss
+ */
+public record CachedQueryResult(
+        String key,
+        List<Long> ids
+) {
+
+    public boolean isHit() {
+        return ids != null;
+    }
+}
@@ -0,0 +1,10 @@
+package com.kshrd.reactiveredis.model.dto;
+
+/**
+ * A readable catalog index in Redis: the sorted set key to page through and its size
+ */
+public record CatalogSnapshot(
+        String indexKey,
+        long size
+) {
+}
@@ -0,0 +1,44 @@
+package com.kshrd.reactiveredis.model.dto;
+
+import com.kshrd.reactiveredis.common.enumeration.MovieSortOrder;
+
+import java.math.BigDecimal;
+
+/**
+ * Position after the last movie of a keyset page.
+ * In id order it is the id itself; in rating order it is "rating:id",
+ * with "null:id" once the walk has reached the unrated movies.
+ */
+public record MovieCursor(
+        MovieSortOrder sort,
+        BigDecimal rating,
+        long id
+) {
+
+    private static final String UNRATED = "null";
+
+    /**
+     * Parse a cursor returned by a previous page
+     */
+    public static MovieCursor parse(MovieSortOrder sort, String value) {
+        try {
+            if (sort == MovieSortOrder.ID) {
+                return new MovieCursor(sort, null, Long.parseLong(value));
+            }
+
+            int separator = value.indexOf(':');
+            String rating = value.substring(0, separator);
+            long id = Long.parseLong(value.substring(separator + 1));
+            return new MovieCursor(sort, UNRATED.equals(rating) ? null : new BigDecimal(rating), id);
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor for " + sort + " order: " + value);
+        }
+    }
+
+    public String encode() {
+        if (sort == MovieSortOrder.ID) {
+            return String.valueOf(id);
+        }
+        return (rating == null ? UNRATED : rating.toPlainString()) + ":" + id;
+    }
+}
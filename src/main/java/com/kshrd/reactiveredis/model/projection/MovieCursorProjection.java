@@ -0,0 +1,13 @@
+package com.kshrd.reactiveredis.model.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * The sort key columns of a movie, enough to build the cursor of a keyset page
+ */
+public interface MovieCursorProjection {
+
+    Long getId();
+
+    BigDecimal getRating();
+}
@@ -0,0 +1,15 @@
+package com.kshrd.reactiveredis.model.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * The columns the Redis secondary indexes are built from
+ */
+public interface MovieIndexProjection {
+
+    Long getId();
+
+    String getGenre();
+
+    BigDecimal getRating();
+}
@@ -0,0 +1,15 @@
+package com.kshrd.reactiveredis.model.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * The columns the in-process title search index is built from
+ */
+public interface MovieTitleProjection {
+
+    Long getId();
+
+    String getTitle();
+
+    BigDecimal getRating();
+}
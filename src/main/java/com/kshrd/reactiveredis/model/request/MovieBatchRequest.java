@@ -0,0 +1,21 @@
+package com.kshrd.reactiveredis.model.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieBatchRequest {
+
+    @NotEmpty(message = "At least one movie ID is required")
+    @Size(max = 100, message = "At most 100 movie IDs can be requested at once")
+    private List<Long> ids;
+}
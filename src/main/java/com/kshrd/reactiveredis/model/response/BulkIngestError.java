@@ -0,0 +1,20 @@
+package com.kshrd.reactiveredis.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkIngestError {
+
+    /** 1-based position of the rejected movie in the request stream */
+    private long line;
+
+    private String title;
+
+    private String message;
+}
@@ -0,0 +1,31 @@
+package com.kshrd.reactiveredis.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class BulkIngestProgress {
+
+    private int batch;
+
+    private int received;
+
+    private int inserted;
+
+    private int rejected;
+
+    private long totalInserted;
+
+    private long totalRejected;
+
+    private List<BulkIngestError> errors;
+}
@@ -0,0 +1,23 @@
+package com.kshrd.reactiveredis.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheClearProgress {
+
+    private int batch;
+
+    private int batchKeys;
+
+    private long batchUnlinked;
+
+    private long totalUnlinked;
+
+    private boolean completed;
+}
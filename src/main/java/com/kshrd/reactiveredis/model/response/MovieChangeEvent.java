@@ -0,0 +1,23 @@
+package com.kshrd.reactiveredis.model.response;
+
+import com.kshrd.reactiveredis.common.enumeration.MovieChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One movie mutation from the change feed; the movie is absent for deletions
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieChangeEvent {
+    private MovieChangeType type;
+    private Long movieId;
+    private MovieResponse movie;
+    private Instant changedAt;
+}
@@ -0,0 +1,28 @@
+package com.kshrd.reactiveredis.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieDetailsResponse {
+
+    private MovieResponse movie;
+
+    /** Latest reviews first, up to the configured page size */
+    private List<ReviewResponse> reviews;
+
+    private Long reviewCount;
+
+    /** Average review score; null when there are no reviews */
+    private Double averageReviewRating;
+
+    /** Set when a part timed out or failed and its fallback value is shown */
+    private boolean partial;
+}
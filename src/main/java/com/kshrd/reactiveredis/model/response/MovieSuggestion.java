@@ -0,0 +1,21 @@
+package com.kshrd.reactiveredis.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieSuggestion {
+
+    private Long id;
+
+    private String title;
+
+    private BigDecimal rating;
+}
@@ -0,0 +1,138 @@
+package com.kshrd.reactiveredis.repository;
+
+import com.kshrd.reactiveredis.model.entity.Movie;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Bulk reads and writes that the derived repository methods cannot express
+ */
+@Repository
+@RequiredArgsConstructor
+public class MovieBulkRepository {
+
+    private static final String INSERT_PREFIX = "INSERT INTO movies "
+            + "(title, description, release_year, genre, director, rating, duration_minutes, created_at, updated_at) "
+            + "VALUES ";
+
+    private static final int INSERT_COLUMNS = 9;
+
+    /**
+     * Postgres accepts at most 65535 bind parameters per statement
+     */
+    public static final int MAX_INSERT_BATCH = 65_535 / INSERT_COLUMNS;
+
+    /**
+     * The row lock orders concurrent updates, and updated_at never moves
+     * backwards, so it can serve as the row's version
+     */
+    private static final String UPDATE_SQL = """
+            UPDATE movies
+            SET title = $1, description = $2, release_year = $3, genre = $4, director = $5,
+                rating = $6, duration_minutes = $7,
+                updated_at = GREATEST($8, updated_at + INTERVAL '1 microsecond')
+            WHERE id = $9
+            RETURNING *
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Insert all movies with one multi-row INSERT, emitting the saved rows with their ids
+     */
+    public Flux<Movie> insertAll(List<Movie> movies) {
+        if (movies.isEmpty()) {
+            return Flux.empty();
+        }
+        if (movies.size() > MAX_INSERT_BATCH) {
+            return Flux.error(new IllegalArgumentException(
+                    "At most " + MAX_INSERT_BATCH + " movies can be inserted per statement, got " + movies.size()));
+        }
+
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int i = 0; i < movies.size(); i++) {
+            sql.append(i == 0 ? "(" : ", (");
+            for (int column = 0; column < INSERT_COLUMNS; column++) {
+                sql.append(column == 0 ? "$" : ", $").append(i * INSERT_COLUMNS + column + 1);
+            }
+            sql.append(')');
+        }
+        sql.append(" RETURNING *");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < movies.size(); i++) {
+            Movie movie = movies.get(i);
+            int offset = i * INSERT_COLUMNS;
+            spec = bind(spec, offset, movie.getTitle(), String.class);
+            spec = bind(spec, offset + 1, movie.getDescription(), String.class);
+            spec = bind(spec, offset + 2, movie.getReleaseYear(), Integer.class);
+            spec = bind(spec, offset + 3, movie.getGenre(), String.class);
+            spec = bind(spec, offset + 4, movie.getDirector(), String.class);
+            spec = bind(spec, offset + 5, movie.getRating(), BigDecimal.class);
+            spec = bind(spec, offset + 6, movie.getDurationMinutes(), Integer.class);
+            spec = bind(spec, offset + 7, movie.getCreatedAt(), LocalDateTime.class);
+            spec = bind(spec, offset + 8, movie.getUpdatedAt(), LocalDateTime.class);
+        }
+
+        return spec.map((row, metadata) -> toMovie(row)).all();
+    }
+
+    /**
+     * Update a movie in one statement, emitting the saved row; empty when it no longer exists.
+     * The new updated_at is strictly later than the previous one, even across node clocks.
+     */
+    public Mono<Movie> update(Movie movie) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(UPDATE_SQL);
+        spec = bind(spec, 0, movie.getTitle(), String.class);
+        spec = bind(spec, 1, movie.getDescription(), String.class);
+        spec = bind(spec, 2, movie.getReleaseYear(), Integer.class);
+        spec = bind(spec, 3, movie.getGenre(), String.class);
+        spec = bind(spec, 4, movie.getDirector(), String.class);
+        spec = bind(spec, 5, movie.getRating(), BigDecimal.class);
+        spec = bind(spec, 6, movie.getDurationMinutes(), Integer.class);
+        spec = bind(spec, 7, movie.getUpdatedAt(), LocalDateTime.class);
+        spec = spec.bind(8, movie.getId());
+
+        return spec.map((row, metadata) -> toMovie(row)).one();
+    }
+
+    /**
+     * Stream the movies after an id, in id order, from a database cursor that
+     * fetches the given number of rows per round trip as they are requested
+     */
+    public Flux<Movie> streamAfter(long afterId, int fetchSize) {
+        return databaseClient.sql("SELECT * FROM movies WHERE id > $1 ORDER BY id")
+                .bind(0, afterId)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map((row, metadata) -> toMovie(row))
+                .all();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(
+            DatabaseClient.GenericExecuteSpec spec, int index, Object value, Class<?> type) {
+        return value == null ? spec.bindNull(index, type) : spec.bind(index, value);
+    }
+
+    private static Movie toMovie(Row row) {
+        return Movie.builder()
+                .id(row.get("id", Long.class))
+                .title(row.get("title", String.class))
+                .description(row.get("description", String.class))
+                .releaseYear(row.get("release_year", Integer.class))
+                .genre(row.get("genre", String.class))
+                .director(row.get("director", String.class))
+                .rating(row.get("rating", BigDecimal.class))
+                .durationMinutes(row.get("duration_minutes", Integer.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .build();
+    }
+}
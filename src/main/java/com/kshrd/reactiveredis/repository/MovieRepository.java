@@ -1,6 +1,9 @@
 package com.kshrd.reactiveredis.repository;
 
 import com.kshrd.reactiveredis.model.entity.Movie;
+import com.kshrd.reactiveredis.model.projection.MovieCursorProjection;
+import com.kshrd.reactiveredis.model.projection.MovieIndexProjection;
+import com.kshrd.reactiveredis.model.projection.MovieTitleProjection;
 import org.springframework.stereotype.Repository;
 
 import org.springframework.data.r2dbc.repository.Query;
@@ -9,6 +12,8 @@ import org.springframework.data.repository.query.Param;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
+
 @Repository
 public interface MovieRepository extends R2dbcRepository<Movie, Long> {
 
@@ -32,6 +37,49 @@ public interface MovieRepository extends R2dbcRepository<Movie, Long> {
     @Query("SELECT * FROM movies ORDER BY rating DESC LIMIT :limit")
     Flux<Movie> findTopRatedMovies(@Param("limit") int limit);
 
+    // All movie ids in primary key order, used to rebuild the cached catalog index
+    @Query("SELECT id FROM movies ORDER BY id")
+    Flux<Long> findAllIds();
+
+    // Genre and rating of every movie, used to rebuild the Redis secondary indexes
+    @Query("SELECT id, genre, rating FROM movies")
+    Flux<MovieIndexProjection> findAllIndexEntries();
+
+    // Id, title and rating of every movie, used to build the in-process title search index
+    @Query("SELECT id, title, rating FROM movies")
+    Flux<MovieTitleProjection> findAllTitles();
+
+    // Best rated movies whose title starts with a LIKE prefix pattern, for autocomplete
+    @Query("SELECT * FROM movies WHERE title ILIKE :pattern ORDER BY rating DESC NULLS LAST LIMIT :limit")
+    Flux<Movie> findTopRatedByTitlePattern(@Param("pattern") String pattern, @Param("limit") int limit);
+
+    // Keyset page in primary key order: the movies after a cursor id
+    @Query("SELECT id, rating FROM movies WHERE id > :after ORDER BY id LIMIT :limit")
+    Flux<MovieCursorProjection> findPageAfterId(@Param("after") long after, @Param("limit") int limit);
+
+    // First keyset page in rating order, best rated first and unrated last
+    @Query("SELECT id, rating FROM movies ORDER BY rating DESC NULLS LAST, id LIMIT :limit")
+    Flux<MovieCursorProjection> findFirstPageByRating(@Param("limit") int limit);
+
+    // Keyset page of rated movies after a (rating, id) cursor; the rating bound lets the index seek
+    @Query("""
+            SELECT id, rating FROM movies
+            WHERE rating <= :rating AND (rating < :rating OR id > :after)
+            ORDER BY rating DESC NULLS LAST, id
+            LIMIT :limit
+            """)
+    Flux<MovieCursorProjection> findPageAfterRating(
+            @Param("rating") BigDecimal rating, @Param("after") long after, @Param("limit") int limit);
+
+    // Keyset page of unrated movies after a cursor id, the tail of the rating order
+    @Query("""
+            SELECT id, rating FROM movies
+            WHERE rating IS NULL AND id > :after
+            ORDER BY rating DESC NULLS LAST, id
+            LIMIT :limit
+            """)
+    Flux<MovieCursorProjection> findUnratedPageAfterId(@Param("after") long after, @Param("limit") int limit);
+
     // Count movies by genre
     @Query("SELECT COUNT(*) FROM movies WHERE genre = :genre")
     Mono<Long> countByGenre(@Param("genre") String genre);
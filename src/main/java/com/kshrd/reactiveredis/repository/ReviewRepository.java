@@ -8,12 +8,31 @@ import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 @Repository
 public interface ReviewRepository extends R2dbcRepository<Review, Long> {
 
     // Find all reviews for a movie
     Flux<Review> findByMovieId(Long movieId);
 
+    // Latest reviews of a movie, for the first page of the details view
+    @Query("SELECT * FROM reviews WHERE movie_id = :movieId ORDER BY created_at DESC, id DESC LIMIT :limit")
+    Flux<Review> findLatestByMovieId(@Param("movieId") Long movieId, @Param("limit") int limit);
+
+    // Latest reviews of several movies at once, at most perMovie of each, grouped by movie
+    @Query("""
+            SELECT id, movie_id, reviewer_name, rating, comment, created_at
+            FROM (
+                SELECT r.*, ROW_NUMBER() OVER (PARTITION BY movie_id ORDER BY created_at DESC, id DESC) AS review_rank
+                FROM reviews r
+                WHERE movie_id IN (:movieIds)
+            ) ranked
+            WHERE review_rank <= :perMovie
+            ORDER BY movie_id, review_rank
+            """)
+    Flux<Review> findLatestByMovieIds(@Param("movieIds") Collection<Long> movieIds, @Param("perMovie") int perMovie);
+
     // Find reviews by rating
     Flux<Review> findByMovieIdAndRating(Long movieId, Integer rating);
 
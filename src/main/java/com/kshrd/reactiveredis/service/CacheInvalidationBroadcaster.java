@@ -0,0 +1,131 @@
+package com.kshrd.reactiveredis.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.INVALIDATE_ALL;
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.INVALIDATION_CHANNEL;
+
+/**
+ * Broadcasts near cache invalidations over Redis pub/sub so that every
+ * node drops the same L1 entries. Messages are "{nodeId}|{movieId}",
+ * "{nodeId}|{movieId},{movieId},..." for a batch, or "{nodeId}|*"; a node
+ * ignores its own messages since it has already invalidated locally before
+ * publishing.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationBroadcaster {
+
+    private static final String NODE_ID = UUID.randomUUID().toString();
+    private static final String SEPARATOR = "|";
+    private static final String ID_SEPARATOR = ",";
+
+    private final ReactiveRedisTemplate<String, String> stringRedisTemplate;
+
+    private final MovieNearCache nearCache;
+
+    private final Sinks.Many<List<Long>> remoteMovieChanges = Sinks.many().multicast().directBestEffort();
+
+    private Disposable subscription;
+
+    /**
+     * Publish invalidation of a single movie
+     */
+    public Mono<Long> publishMovie(Long movieId) {
+        return publish(String.valueOf(movieId));
+    }
+
+    /**
+     * Publish invalidation of a batch of movies as one message
+     */
+    public Mono<Long> publishMovies(Collection<Long> movieIds) {
+        if (movieIds.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return publish(movieIds.stream().map(String::valueOf).collect(Collectors.joining(ID_SEPARATOR)));
+    }
+
+    /**
+     * Ids of movies changed on other nodes, one list per invalidation message
+     */
+    public Flux<List<Long>> remoteMovieChanges() {
+        return remoteMovieChanges.asFlux();
+    }
+
+    /**
+     * Publish invalidation of every movie
+     */
+    public Mono<Long> publishAll() {
+        return publish(INVALIDATE_ALL);
+    }
+
+    private Mono<Long> publish(String payload) {
+        return stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, NODE_ID + SEPARATOR + payload)
+                .onErrorResume(e -> {
+                    log.warn("Failed to publish cache invalidation {}", payload, e);
+                    return Mono.just(0L);
+                });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        subscription = stringRedisTemplate.listenToChannel(INVALIDATION_CHANNEL)
+                .doOnNext(message -> handle(message.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> {
+                            // Messages may have been missed while disconnected
+                            nearCache.invalidateAll();
+                            log.warn("Invalidation channel lost, resubscribing", signal.failure());
+                        }))
+                .subscribe();
+        log.info("Subscribed to cache invalidation channel {}", INVALIDATION_CHANNEL);
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private void handle(String message) {
+        int separator = message.indexOf(SEPARATOR);
+        if (separator < 0 || message.startsWith(NODE_ID + SEPARATOR)) {
+            return;
+        }
+
+        String payload = message.substring(separator + 1);
+        if (INVALIDATE_ALL.equals(payload)) {
+            nearCache.invalidateAll();
+            return;
+        }
+
+        try {
+            List<Long> movieIds = Arrays.stream(payload.split(ID_SEPARATOR)).map(Long::valueOf).toList();
+            movieIds.forEach(nearCache::invalidate);
+            remoteMovieChanges.tryEmitNext(movieIds);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed invalidation message {}", message);
+        }
+    }
+}
@@ -1,52 +1,328 @@
 package com.kshrd.reactiveredis.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kshrd.reactiveredis.common.constant.CacheTag;
+import com.kshrd.reactiveredis.common.property.MovieCacheProperties;
+import com.kshrd.reactiveredis.model.dto.CachedMovie;
+import com.kshrd.reactiveredis.model.dto.CachedMoviePage;
+import com.kshrd.reactiveredis.model.dto.CatalogSnapshot;
+import com.kshrd.reactiveredis.model.response.CacheClearProgress;
+import com.kshrd.reactiveredis.model.response.MovieDetailsResponse;
 import com.kshrd.reactiveredis.model.response.MovieResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Range;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
-import static com.kshrd.reactiveredis.common.constant.MovieConstant.ALL_MOVIES_KEY;
 import static com.kshrd.reactiveredis.common.constant.MovieConstant.CACHE_KEY_PREFIX;
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.CATALOG_DIRTY_KEY;
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.CATALOG_INDEX_KEY;
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.CATALOG_LAST_WRITE_KEY;
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.LEASE_SUFFIX;
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.MISSING_MOVIE_PREFIX;
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.MOVIE_DETAILS_PREFIX;
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.QUERY_RESULT_PREFIX;
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.STALE_SUFFIX;
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.TAG_PREFIX;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CacheService {
 
+    private static final int INDEX_WRITE_CHUNK = 1_000;
+
+    /**
+     * Deletes the lease only if it is still held by the caller's token
+     */
+    private static final RedisScript<Long> RELEASE_LEASE_SCRIPT = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    /**
+     * Writes a movie entry unless the cached one is a newer version of the row.
+     * The version is the big-endian long at offset 3 of a binary entry of
+     * schema 2 or later (magic byte 0xC5); anything else is overwritten.
+     */
+    private static final RedisScript<Long> SET_IF_NEWER_SCRIPT = RedisScript.of("""
+            local header = redis.call('GETRANGE', KEYS[1], 0, 10)
+            if #header == 11 and string.byte(header, 1) == 197 and string.byte(header, 2) >= 2 then
+                local current = 0
+                for i = 4, 11 do
+                    current = current * 256 + string.byte(header, i)
+                end
+                if current > tonumber(ARGV[2]) then
+                    return 0
+                end
+            end
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+
+    /**
+     * Writes an entry and records its key in each tag set (KEYS[2..n]); a tag
+     * set lives at least as long as the longest-lived entry recorded in it
+     */
+    private static final RedisScript<Long> SET_TAGGED_SCRIPT = RedisScript.of("""
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            for i = 2, #KEYS do
+                redis.call('SADD', KEYS[i], KEYS[1])
+                if redis.call('PTTL', KEYS[i]) < tonumber(ARGV[2]) then
+                    redis.call('PEXPIRE', KEYS[i], ARGV[2])
+                end
+            end
+            return 1
+            """, Long.class);
+
+    /**
+     * Unlinks every entry recorded in the given tag sets, then the tag sets themselves
+     */
+    private static final RedisScript<Long> INVALIDATE_TAGS_SCRIPT = RedisScript.of("""
+            local dropped = 0
+            for i = 1, #KEYS do
+                local keys = redis.call('SMEMBERS', KEYS[i])
+                for j = 1, #keys, 500 do
+                    dropped = dropped + redis.call('UNLINK', unpack(keys, j, math.min(j + 499, #keys)))
+                end
+                redis.call('UNLINK', KEYS[i])
+            end
+            return dropped
+            """, Long.class);
+
+    /**
+     * Version of a delete tombstone; it outranks every row version, so nothing
+     * is written over it until it expires
+     */
+    private static final long TOMBSTONE_VERSION = Long.MAX_VALUE;
+
     @Qualifier("movieRedisTemplate")
-    private final ReactiveRedisTemplate<String, MovieResponse> movieRedisTemplate;
+    private final ReactiveRedisTemplate<String, ByteBuffer> movieRedisTemplate;
 
     private final ReactiveRedisTemplate<String, String> stringRedisTemplate;
 
+    private final MovieNearCache nearCache;
+
+    private final CacheInvalidationBroadcaster invalidationBroadcaster;
+
+    private final MovieCacheProperties properties;
+
+    private final RefreshAheadPolicy refreshAheadPolicy;
+
+    private final MovieGetBatcher movieGetBatcher;
+
+    private final MovieCacheCodec movieCacheCodec;
+
+    private final CatalogInvalidationCoordinator catalogInvalidationCoordinator;
+
     private final ObjectMapper objectMapper;
 
     /**
-     * Cache a single movie
+     * Last observed time to rebuild the catalog index, used for its refresh-ahead
+     */
+    private final AtomicLong catalogRecomputeMillis = new AtomicLong();
+
+    /**
+     * Cache a single movie, assuming the default recompute time
      */
     public Mono<Boolean> cacheMovie(Long movieId, MovieResponse movie, Duration ttl) {
-        return movieRedisTemplate.opsForValue()
-                .set(CACHE_KEY_PREFIX + movieId, movie, ttl)
-                .doOnSuccess(result ->
-                        log.debug("Cached movie {}: {}", movieId, result))
+        return cacheMovie(movieId, movie, ttl, refreshAheadPolicy.defaultRecomputeTime());
+    }
+
+    /**
+     * Cache a single movie with a jittered TTL and the time it took to load.
+     * The write is skipped when the cache already holds a newer version of
+     * the movie, so a reader that loaded the row before an update can never
+     * put the old row back.
+     */
+    public Mono<Boolean> cacheMovie(Long movieId, MovieResponse movie, Duration ttl, Duration recomputeTime) {
+        return storeMovie(movieId, movie, ttl, recomputeTime)
                 .onErrorReturn(false);
     }
 
+    private Mono<Boolean> storeMovie(Long movieId, MovieResponse movie, Duration ttl, Duration recomputeTime) {
+        Duration jitteredTtl = refreshAheadPolicy.jitter(ttl);
+        CachedMovie entry = CachedMovie.builder()
+                .movie(movie)
+                .version(versionOf(movie))
+                .expiresAt(System.currentTimeMillis() + jitteredTtl.toMillis())
+                .recomputeMillis(recomputeTime.toMillis())
+                .build();
+
+        return movieCacheCodec.encode(entry)
+                .flatMap(value -> setIfNewer(CACHE_KEY_PREFIX + movieId, entry, value, jitteredTtl))
+                .doOnSuccess(result -> {
+                    if (Boolean.TRUE.equals(result)) {
+                        nearCache.put(movieId, entry);
+                    }
+                    log.debug("Cached movie {}: {}", movieId, result);
+                });
+    }
+
+    /**
+     * Write an updated movie through to the cache after its row was committed,
+     * replacing the old entry instead of deleting it so the next read is a hit.
+     * Other nodes drop their near-cache copy and re-read the new entry. If the
+     * write fails the old entry is deleted instead, so it cannot be served
+     * until its TTL runs out.
+     */
+    public Mono<Boolean> writeThroughMovie(MovieResponse movie, Duration ttl) {
+        return storeMovie(movie.getId(), movie, ttl, refreshAheadPolicy.defaultRecomputeTime())
+                .flatMap(stored -> invalidationBroadcaster.publishMovie(movie.getId())
+                        .thenReturn(stored))
+                .onErrorResume(e -> {
+                    log.warn("Write-through of movie {} failed, invalidating it", movie.getId(), e);
+                    return invalidateMovie(movie.getId()).thenReturn(false);
+                });
+    }
+
+    /**
+     * Replace a deleted movie's entry with a tombstone after the delete has
+     * committed. Unlike a DEL, the tombstone also stops a reader that loaded
+     * the row before the delete from writing it back; readers see it as a miss.
+     * Falls back to a plain invalidation if the write fails.
+     */
+    public Mono<Boolean> tombstoneMovie(Long movieId, Duration ttl) {
+        CachedMovie tombstone = CachedMovie.builder()
+                .version(TOMBSTONE_VERSION)
+                .expiresAt(System.currentTimeMillis() + ttl.toMillis())
+                .build();
+
+        return movieCacheCodec.encode(tombstone)
+                .flatMap(value -> setIfNewer(CACHE_KEY_PREFIX + movieId, tombstone, value, ttl))
+                .doOnSuccess(stored -> nearCache.invalidate(movieId))
+                .flatMap(stored -> invalidationBroadcaster.publishMovie(movieId)
+                        .thenReturn(stored))
+                .onErrorResume(e -> {
+                    log.warn("Failed to write tombstone for movie {}, invalidating it", movieId, e);
+                    return invalidateMovie(movieId);
+                });
+    }
+
     /**
-     * Get cached movie
+     * Cache several movies in one pipelined batch of compare-and-set writes, each with its own jittered TTL
+     */
+    public Mono<Long> cacheMovies(Collection<MovieResponse> movies, Duration ttl, Duration recomputeTime) {
+        if (movies.isEmpty()) {
+            return Mono.just(0L);
+        }
+
+        List<CachedMovie> entries = new ArrayList<>(movies.size());
+        List<Duration> ttls = new ArrayList<>(movies.size());
+        for (MovieResponse movie : movies) {
+            Duration jitteredTtl = refreshAheadPolicy.jitter(ttl);
+            entries.add(CachedMovie.builder()
+                    .movie(movie)
+                    .version(versionOf(movie))
+                    .expiresAt(System.currentTimeMillis() + jitteredTtl.toMillis())
+                    .recomputeMillis(recomputeTime.toMillis())
+                    .build());
+            ttls.add(jitteredTtl);
+        }
+
+        // The script calls share one connection, so Lettuce pipelines them
+        return movieCacheCodec.encodeAll(entries)
+                .flatMapMany(values -> Flux.range(0, values.size())
+                        .flatMap(i -> {
+                            CachedMovie entry = entries.get(i);
+                            return setIfNewer(CACHE_KEY_PREFIX + entry.getMovie().getId(), entry, values.get(i), ttls.get(i))
+                                    .filter(Boolean::booleanValue)
+                                    .doOnNext(stored -> nearCache.put(entry.getMovie().getId(), entry));
+                        }))
+                .count()
+                .doOnSuccess(count -> log.debug("Cached {} of {} movies", count, movies.size()))
+                .onErrorResume(e -> {
+                    log.error("Failed to cache {} movies", movies.size(), e);
+                    return Mono.just(0L);
+                });
+    }
+
+    private Mono<Boolean> setIfNewer(String key, CachedMovie entry, ByteBuffer value, Duration ttl) {
+        return movieRedisTemplate.execute(SET_IF_NEWER_SCRIPT, List.of(key),
+                        List.of(value, ascii(entry.getVersion()), ascii(ttl.toMillis())))
+                .next()
+                .map(stored -> {
+                    if (stored == 0L) {
+                        log.debug("Kept newer cached version of {}", key);
+                    }
+                    return stored == 1L;
+                });
+    }
+
+    /**
+     * Version of a movie row: its updatedAt in epoch micros, or 0 when unknown
+     */
+    private static long versionOf(MovieResponse movie) {
+        LocalDateTime updatedAt = movie.getUpdatedAt();
+        if (updatedAt == null) {
+            return 0L;
+        }
+        return updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + updatedAt.getNano() / 1_000;
+    }
+
+    private static ByteBuffer ascii(long value) {
+        return ByteBuffer.wrap(String.valueOf(value).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Get cached movie without refresh-ahead
      */
     public Mono<MovieResponse> getCachedMovie(Long movieId) {
-        return movieRedisTemplate.opsForValue()
-                .get(CACHE_KEY_PREFIX + movieId)
-                .doOnNext(movie ->
-                        log.debug("Cache hit for movie {}", movieId))
+        return getCachedMovie(movieId, Mono.empty());
+    }
+
+    /**
+     * Get cached movie, checking the in-process L1 before Redis.
+     * Redis reads go through the GET batcher, so concurrent lookups share one MGET.
+     * When the entry is close to expiry, the refresh is subscribed in the
+     * background while the current value is still returned.
+     */
+    public Mono<MovieResponse> getCachedMovie(Long movieId, Mono<MovieResponse> refresh) {
+        return Mono.fromSupplier(() -> nearCache.get(movieId))
+                .doOnNext(entry ->
+                        log.debug("Near cache hit for movie {}", movieId))
+                .switchIfEmpty(Mono.defer(() -> movieGetBatcher
+                        .get(CACHE_KEY_PREFIX + movieId)
+                        .flatMap(movieCacheCodec::decode)
+                        .filter(entry -> entry.getMovie() != null)
+                        .doOnNext(entry -> {
+                            nearCache.put(movieId, entry);
+                            log.debug("Cache hit for movie {}", movieId);
+                        })))
+                .doOnNext(entry -> {
+                    if (refreshAheadPolicy.shouldRefresh(entry.getExpiresAt(), entry.getRecomputeMillis())) {
+                        log.debug("Refreshing movie {} ahead of expiry", movieId);
+                        refreshInBackground(CACHE_KEY_PREFIX + movieId, refresh);
+                    }
+                })
+                .map(CachedMovie::getMovie)
                 .onErrorResume(e -> {
                     log.error("Cache error for movie {}", movieId, e);
                     return Mono.empty();
@@ -54,53 +330,333 @@ public class CacheService {
     }
 
     /**
-     * Cache all movies (as a list)
+     * Get several cached movies at once: L1 first, then a single MGET for the rest.
+     * Misses are simply absent from the returned map.
      */
-    public Mono<Boolean> cacheAllMovies(Flux<MovieResponse> movies, Duration ttl) {
-        return movies.collectList()
-                .flatMap(list -> Mono.fromCallable(() ->
-                        objectMapper.writeValueAsString(list)))
-                .flatMap(json ->
-                        stringRedisTemplate.opsForValue()
-                                .set(ALL_MOVIES_KEY, json, ttl))
+    public Mono<Map<Long, MovieResponse>> getCachedMovies(Collection<Long> movieIds) {
+        Map<Long, MovieResponse> found = new HashMap<>();
+        List<Long> remaining = new ArrayList<>();
+        for (Long movieId : movieIds) {
+            CachedMovie entry = nearCache.get(movieId);
+            if (entry != null) {
+                found.put(movieId, entry.getMovie());
+            } else {
+                remaining.add(movieId);
+            }
+        }
+        if (remaining.isEmpty()) {
+            return Mono.just(found);
+        }
+
+        List<String> keys = remaining.stream().map(id -> CACHE_KEY_PREFIX + id).toList();
+        return movieRedisTemplate.opsForValue()
+                .multiGet(keys)
+                .flatMap(movieCacheCodec::decodeAll)
+                .map(values -> {
+                    for (int i = 0; i < remaining.size(); i++) {
+                        CachedMovie entry = values.get(i);
+                        if (entry != null && entry.getMovie() != null) {
+                            nearCache.put(remaining.get(i), entry);
+                            found.put(remaining.get(i), entry.getMovie());
+                        }
+                    }
+                    return found;
+                })
+                .onErrorResume(e -> {
+                    log.error("Cache error for movies {}", remaining, e);
+                    return Mono.just(found);
+                });
+    }
+
+    /**
+     * Replace the catalog index with the given ids, keeping a longer-lived stale copy.
+     * The index is built under a temporary key and renamed into place, so readers
+     * never see a partially written index. {@code rebuildStartedAt} is the
+     * {@link #catalogRebuildStart()} taken before the ids were read.
+     */
+    public Mono<Boolean> cacheCatalogIndex(List<Long> movieIds, Duration ttl, Duration recomputeTime,
+                                           long rebuildStartedAt) {
+        String buildKey = CATALOG_INDEX_KEY + ":build:" + UUID.randomUUID();
+        String staleKey = CATALOG_INDEX_KEY + STALE_SUFFIX;
+        Duration jitteredTtl = refreshAheadPolicy.jitter(ttl);
+        Duration staleTtl = jitteredTtl.plus(properties.getLease().getStaleTtl());
+        catalogRecomputeMillis.set(recomputeTime.toMillis());
+        if (movieIds.isEmpty()) {
+            // An empty sorted set does not exist in Redis, so there is nothing to store
+            return Mono.just(false);
+        }
+
+        return Flux.fromIterable(movieIds)
+                .map(id -> (ZSetOperations.TypedTuple<String>) new DefaultTypedTuple<>(String.valueOf(id), id.doubleValue()))
+                .buffer(INDEX_WRITE_CHUNK)
+                .concatMap(chunk -> stringRedisTemplate.opsForZSet().addAll(buildKey, chunk))
+                .then(stringRedisTemplate.expire(buildKey, jitteredTtl))
+                .then(stringRedisTemplate.copy(buildKey, staleKey, true))
+                .then(stringRedisTemplate.expire(staleKey, staleTtl))
+                .then(catalogInvalidationCoordinator.publishIndex(buildKey, rebuildStartedAt))
                 .doOnSuccess(result ->
-                        log.debug("Cached all movies"))
-                .onErrorReturn(false);
+                        log.debug("Cached catalog index of {} movies", movieIds.size()))
+                .onErrorResume(e -> {
+                    log.error("Failed to cache catalog index", e);
+                    return stringRedisTemplate.delete(buildKey).thenReturn(false);
+                });
     }
 
     /**
-     * Get all cached movies
+     * Start time of a catalog rebuild, on the Redis clock that write marks use
      */
-    public Flux<MovieResponse> getAllCachedMovies() {
-        return stringRedisTemplate.opsForValue()
-                .get(ALL_MOVIES_KEY)
-                .flatMapMany(json -> {
-                    try {
-                        MovieResponse[] movies =
-                                objectMapper.readValue(json, MovieResponse[].class);
-                        return Flux.fromArray(movies);
-                    } catch (Exception e) {
-                        log.error("Failed to deserialize movie list", e);
-                        return Flux.empty();
+    public Mono<Long> catalogRebuildStart() {
+        return catalogInvalidationCoordinator.rebuildStart();
+    }
+
+    /**
+     * Get the fresh catalog index, if present and not out of date past the invalidation window
+     */
+    public Mono<CatalogSnapshot> getCatalogSnapshot() {
+        return catalogInvalidationCoordinator.readIndexSize()
+                .map(size -> new CatalogSnapshot(CATALOG_INDEX_KEY, size))
+                .onErrorResume(e -> {
+                    log.error("Cache error for catalog index {}", CATALOG_INDEX_KEY, e);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Get the fresh catalog index, refreshing it in the background when close to expiry
+     */
+    public Mono<CatalogSnapshot> getCatalogSnapshot(Mono<CatalogSnapshot> refresh) {
+        return getCatalogSnapshot()
+                .flatMap(snapshot -> stringRedisTemplate.getExpire(CATALOG_INDEX_KEY)
+                        .doOnNext(remaining -> {
+                            long recomputeMillis = catalogRecomputeMillis.get() > 0
+                                    ? catalogRecomputeMillis.get()
+                                    : refreshAheadPolicy.defaultRecomputeTime().toMillis();
+                            if (refreshAheadPolicy.shouldRefresh(remaining, recomputeMillis)) {
+                                log.debug("Refreshing catalog index ahead of expiry");
+                                refreshInBackground(CATALOG_INDEX_KEY, refresh);
+                            }
+                        })
+                        .onErrorResume(e -> Mono.empty())
+                        .thenReturn(snapshot));
+    }
+
+    /**
+     * Get the stale catalog index, which survives invalidation of the fresh one
+     */
+    public Mono<CatalogSnapshot> getStaleCatalogSnapshot() {
+        return readSnapshot(CATALOG_INDEX_KEY + STALE_SUFFIX);
+    }
+
+    /**
+     * Get one page of movie ids, in id order, from a catalog index
+     */
+    public Mono<List<Long>> getCatalogPageIds(CatalogSnapshot snapshot, long offset, int size) {
+        return stringRedisTemplate.opsForZSet()
+                .range(snapshot.indexKey(), Range.closed(offset, offset + size - 1))
+                .map(Long::valueOf)
+                .collectList();
+    }
+
+    /**
+     * Cache the ids of one keyset page under the tags its order depends on
+     */
+    public Mono<Boolean> cacheMoviePage(String pageKey, CachedMoviePage page, Duration ttl, Collection<String> tags) {
+        String value = Optional.ofNullable(page.nextCursor()).orElse("") + "|"
+                + page.ids().stream().map(String::valueOf).collect(Collectors.joining(","));
+        return cacheTagged(pageKey, value, ttl, tags);
+    }
+
+    /**
+     * Get a cached keyset page; empty on a miss
+     */
+    public Mono<CachedMoviePage> getCachedMoviePage(String pageKey) {
+        return stringRedisTemplate.opsForValue().get(pageKey)
+                .map(value -> {
+                    int separator = value.indexOf('|');
+                    String ids = value.substring(separator + 1);
+                    return new CachedMoviePage(
+                            ids.isEmpty() ? List.of() : Arrays.stream(ids.split(",")).map(Long::valueOf).toList(),
+                            separator == 0 ? null : value.substring(0, separator));
+                })
+                .onErrorResume(e -> {
+                    log.error("Cache error for movie page {}", pageKey, e);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Cache an assembled details page, dropped with the movie's tag when the
+     * movie or its reviews change
+     */
+    public Mono<Boolean> cacheMovieDetails(MovieDetailsResponse details, Duration ttl) {
+        Long movieId = details.getMovie().getId();
+        return Mono.fromCallable(() -> objectMapper.writeValueAsString(details))
+                .flatMap(value -> cacheTagged(MOVIE_DETAILS_PREFIX + movieId, value, ttl, List.of(CacheTag.movie(movieId))))
+                .onErrorResume(e -> {
+                    log.warn("Failed to cache details of movie {}", movieId, e);
+                    return Mono.just(false);
+                });
+    }
+
+    /**
+     * Get a cached details page; empty on a miss. A page is only served while
+     * it holds the same version of the movie as the movie cache, since a load
+     * that read the movie before an update can write its page after the
+     * update dropped the old one.
+     */
+    public Mono<MovieDetailsResponse> getCachedMovieDetails(Long movieId) {
+        return stringRedisTemplate.opsForValue().get(MOVIE_DETAILS_PREFIX + movieId)
+                .flatMap(value -> Mono.fromCallable(() -> objectMapper.readValue(value, MovieDetailsResponse.class)))
+                .filterWhen(details -> getCachedMovie(movieId)
+                        .map(current -> versionOf(current) == versionOf(details.getMovie()))
+                        .defaultIfEmpty(false))
+                .onErrorResume(e -> {
+                    log.error("Cache error for details of movie {}", movieId, e);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Cache a derived value and record its key under each tag, in one round trip.
+     * An invalidation racing with the load that produced the value can leave it
+     * cached until its TTL, so derived entries should keep short TTLs.
+     */
+    public Mono<Boolean> cacheTagged(String key, String value, Duration ttl, Collection<String> tags) {
+        List<String> keys = new ArrayList<>(tags.size() + 1);
+        keys.add(key);
+        tags.forEach(tag -> keys.add(TAG_PREFIX + tag));
+
+        return stringRedisTemplate.execute(SET_TAGGED_SCRIPT, keys, List.of(value, String.valueOf(ttl.toMillis())))
+                .next()
+                .map(stored -> stored == 1L)
+                .onErrorResume(e -> {
+                    log.warn("Failed to cache {} with tags {}", key, tags, e);
+                    return Mono.just(false);
+                });
+    }
+
+    /**
+     * Drop every entry recorded under any of the tags, in one round trip
+     */
+    public Mono<Long> invalidateTags(Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return Mono.just(0L);
+        }
+
+        List<String> keys = tags.stream().map(tag -> TAG_PREFIX + tag).toList();
+        return stringRedisTemplate.execute(INVALIDATE_TAGS_SCRIPT, keys)
+                .next()
+                .doOnNext(dropped -> log.debug("Invalidated {} entries tagged {}", dropped, tags))
+                .onErrorResume(e -> {
+                    log.warn("Failed to invalidate tags {}", tags, e);
+                    return Mono.just(0L);
+                });
+    }
+
+    /**
+     * Rebuild the catalog index under the cluster-wide lease
+     */
+    public Mono<CatalogSnapshot> rebuildCatalogWithLease(Mono<CatalogSnapshot> rebuild) {
+        return rebuildWithLease(CATALOG_INDEX_KEY, rebuild, getStaleCatalogSnapshot(), getCatalogSnapshot());
+    }
+
+    /**
+     * Run an expensive rebuild on only one node in the cluster.
+     * The node holding the lease rebuilds; the others serve the stale value,
+     * or poll for the fresh one until the lease would have expired and then
+     * rebuild themselves, which covers a holder that died mid-rebuild.
+     */
+    public <T> Mono<T> rebuildWithLease(String key, Mono<T> rebuild, Mono<T> stale, Mono<T> fresh) {
+        MovieCacheProperties.Lease lease = properties.getLease();
+        return tryAcquireLease(key)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(token -> {
+                    if (token.isPresent()) {
+                        return Mono.usingWhen(
+                                Mono.just(token.get()),
+                                t -> rebuild,
+                                t -> releaseLease(key, t)
+                        );
                     }
+
+                    log.debug("Lease for {} held elsewhere, waiting for rebuild", key);
+                    return stale
+                            .switchIfEmpty(fresh
+                                    .repeatWhenEmpty(attempts ->
+                                            attempts.delayElements(lease.getPollInterval()))
+                                    .timeout(lease.getTimeout(), Mono.empty()))
+                            .switchIfEmpty(Mono.defer(() -> {
+                                log.warn("Lease holder for {} did not rebuild in time, rebuilding locally", key);
+                                return rebuild;
+                            }));
                 });
     }
 
     /**
-     * Invalidate movie cache
+     * Try to take the rebuild lease for a key; emits the owner token when acquired
      */
-    public Mono<Boolean> invalidateMovie(Long movieId) {
-        return movieRedisTemplate.delete(CACHE_KEY_PREFIX + movieId)
+    public Mono<String> tryAcquireLease(String key) {
+        String token = UUID.randomUUID().toString();
+        return stringRedisTemplate.opsForValue()
+                .setIfAbsent(key + LEASE_SUFFIX, token, properties.getLease().getTimeout())
+                .onErrorResume(e -> {
+                    // Without Redis there is nothing to coordinate on, so act as holder
+                    log.warn("Failed to acquire lease for {}", key, e);
+                    return Mono.just(true);
+                })
+                .filter(Boolean::booleanValue)
+                .map(acquired -> token);
+    }
+
+    /**
+     * Release the rebuild lease if it is still held by the given token
+     */
+    public Mono<Boolean> releaseLease(String key, String token) {
+        return stringRedisTemplate.execute(RELEASE_LEASE_SCRIPT, List.of(key + LEASE_SUFFIX), List.of(token))
+                .next()
                 .map(count -> count > 0)
                 .onErrorReturn(false);
     }
 
+    private <T> void refreshInBackground(String key, Mono<T> refresh) {
+        refresh.subscribe(
+                value -> log.debug("Refreshed {} ahead of expiry", key),
+                e -> log.warn("Refresh ahead of {} failed", key, e)
+        );
+    }
+
+    private Mono<CatalogSnapshot> readSnapshot(String indexKey) {
+        return stringRedisTemplate.opsForZSet()
+                .size(indexKey)
+                .filter(size -> size > 0)
+                .map(size -> new CatalogSnapshot(indexKey, size))
+                .onErrorResume(e -> {
+                    log.error("Cache error for catalog index {}", indexKey, e);
+                    return Mono.empty();
+                });
+    }
+
     /**
-     * Invalidate all movies cache
+     * Invalidate movie cache. The near cache is dropped again once the DELETE
+     * has completed, since a read in between can refill it from Redis.
+     */
+    public Mono<Boolean> invalidateMovie(Long movieId) {
+        return Mono.fromRunnable(() -> nearCache.invalidate(movieId))
+                .then(movieRedisTemplate.delete(CACHE_KEY_PREFIX + movieId))
+                .doFinally(signal -> nearCache.invalidate(movieId))
+                .flatMap(count -> invalidationBroadcaster.publishMovie(movieId)
+                        .thenReturn(count > 0))
+                .onErrorReturn(false);
+    }
+
+    /**
+     * Invalidate the catalog index. Invalidations within the configured window are
+     * merged: the index keeps being served until the window after the first one
+     * closes, then the next read rebuilds it once.
      */
     public Mono<Boolean> invalidateAllMovies() {
-        return stringRedisTemplate.delete(ALL_MOVIES_KEY)
-                .map(count -> count > 0)
+        return catalogInvalidationCoordinator.markDirty()
                 .onErrorReturn(false);
     }
 
@@ -112,24 +668,67 @@ public class CacheService {
     }
 
     /**
-     * Get all movie keys
+     * Get all movie keys, walking the keyspace with a SCAN cursor instead of KEYS
      */
     public Flux<String> getAllMovieKeys() {
-        return movieRedisTemplate.keys(CACHE_KEY_PREFIX + "*");
+        return movieRedisTemplate.scan(ScanOptions.scanOptions()
+                .match(CACHE_KEY_PREFIX + "*")
+                .count(properties.getScan().getCount())
+                .build());
     }
 
     /**
-     * Clear all movie caches
+     * Clear all movie caches in bounded UNLINK batches, emitting progress per batch.
+     * Keys are scanned lazily, so the next SCAN page is only fetched once the
+     * previous batch has been unlinked.
      */
-    public Mono<Long> clearAllMovieCaches() {
-        return movieRedisTemplate.keys(CACHE_KEY_PREFIX + "*")
-                .collectList()
-                .flatMap(keys -> {
-                    keys.add(ALL_MOVIES_KEY);
-                    return movieRedisTemplate.delete(keys.toArray(new String[0]));
-                })
-                .doOnSuccess(count ->
-                        log.info("Cleared {} movie cache entries", count));
+    public Flux<CacheClearProgress> clearAllMovieCaches() {
+        AtomicInteger batches = new AtomicInteger();
+        AtomicLong total = new AtomicLong();
+
+        Flux<String> taggedKeys = stringRedisTemplate.scan(ScanOptions.scanOptions()
+                        .match(TAG_PREFIX + "*")
+                        .count(properties.getScan().getCount())
+                        .build())
+                .concatMap(tagKey -> stringRedisTemplate.opsForSet().scan(tagKey).concatWithValues(tagKey));
+
+        Flux<String> queryResultKeys = stringRedisTemplate.scan(ScanOptions.scanOptions()
+                .match(QUERY_RESULT_PREFIX + "*")
+                .count(properties.getScan().getCount())
+                .build());
+
+        Flux<String> missingKeys = stringRedisTemplate.scan(ScanOptions.scanOptions()
+                .match(MISSING_MOVIE_PREFIX + "*")
+                .count(properties.getScan().getCount())
+                .build());
+
+        return getAllMovieKeys()
+                .concatWith(taggedKeys)
+                .concatWith(queryResultKeys)
+                .concatWith(missingKeys)
+                .concatWith(Flux.just(CATALOG_INDEX_KEY, CATALOG_INDEX_KEY + STALE_SUFFIX, CATALOG_DIRTY_KEY,
+                        CATALOG_LAST_WRITE_KEY))
+                .buffer(properties.getScan().getUnlinkBatchSize())
+                .concatMap(keys -> movieRedisTemplate.unlink(keys.toArray(new String[0]))
+                        .map(unlinked -> CacheClearProgress.builder()
+                                .batch(batches.incrementAndGet())
+                                .batchKeys(keys.size())
+                                .batchUnlinked(unlinked)
+                                .totalUnlinked(total.addAndGet(unlinked))
+                                .build()))
+                .doOnNext(progress ->
+                        log.debug("Unlinked {} cache entries in batch {}", progress.getBatchUnlinked(), progress.getBatch()))
+                .concatWith(Mono.defer(() -> {
+                    nearCache.invalidateAll();
+                    return invalidationBroadcaster.publishAll()
+                            .thenReturn(CacheClearProgress.builder()
+                                    .batch(batches.get())
+                                    .totalUnlinked(total.get())
+                                    .completed(true)
+                                    .build());
+                }))
+                .doOnComplete(() ->
+                        log.info("Cleared {} movie cache entries", total.get()));
     }
 
 }
@@ -0,0 +1,139 @@
+package com.kshrd.reactiveredis.service;
+
+import com.kshrd.reactiveredis.common.property.MovieCacheProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.CATALOG_DIRTY_KEY;
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.CATALOG_INDEX_KEY;
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.CATALOG_LAST_WRITE_KEY;
+
+/**
+ * Merges catalog index invalidations that arrive within a short window.
+ * <p>
+ * A write no longer deletes the index; it records when the index first
+ * became out of date (SET NX, so later writes in the burst keep the mark)
+ * and, unconditionally, when the latest write happened. Readers keep using
+ * the current index until the mark is older than the window, then treat it
+ * as a miss, so a burst of writes costs one rebuild and no reader sees an
+ * index more than one window (plus the rebuild) old. A rebuild publishes its
+ * index and clears the mark in one step, but only when the latest write
+ * predates the start of the rebuild, so writes made while it was reading
+ * keep the index marked. Every timestamp comes from Redis TIME inside the
+ * scripts, so node clocks never get compared.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogInvalidationCoordinator {
+
+    /**
+     * Set the dirty mark (KEYS[1]) if absent and the last write (KEYS[2]) always,
+     * both to the Redis time in microseconds; 1 when the mark was set
+     */
+    private static final RedisScript<Long> MARK_DIRTY_SCRIPT = RedisScript.of("""
+            local now = redis.call('TIME')
+            local micros = string.format('%.0f', now[1] * 1000000 + now[2])
+            redis.call('SET', KEYS[2], micros, 'PX', ARGV[1])
+            if redis.call('SET', KEYS[1], micros, 'NX', 'PX', ARGV[1]) then
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    /**
+     * The Redis time in microseconds
+     */
+    private static final RedisScript<Long> TIME_SCRIPT = RedisScript.of("""
+            local now = redis.call('TIME')
+            return now[1] * 1000000 + now[2]
+            """, Long.class);
+
+    /**
+     * ZCARD of the index, or -1 when it has been out of date for longer than the window (ARGV[1], micros)
+     */
+    private static final RedisScript<Long> READ_INDEX_SCRIPT = RedisScript.of("""
+            local dirtySince = redis.call('GET', KEYS[2])
+            if dirtySince then
+                local now = redis.call('TIME')
+                if now[1] * 1000000 + now[2] - tonumber(dirtySince) >= tonumber(ARGV[1]) then
+                    return -1
+                end
+            end
+            return redis.call('ZCARD', KEYS[1])
+            """, Long.class);
+
+    /**
+     * Rename the built index into place and clear the dirty mark when the last
+     * write predates the rebuild start (ARGV[1], micros)
+     */
+    private static final RedisScript<Long> PUBLISH_INDEX_SCRIPT = RedisScript.of("""
+            redis.call('RENAME', KEYS[1], KEYS[2])
+            local lastWrite = redis.call('GET', KEYS[4]) or redis.call('GET', KEYS[3])
+            if lastWrite and tonumber(lastWrite) < tonumber(ARGV[1]) then
+                return redis.call('DEL', KEYS[3], KEYS[4])
+            end
+            return 0
+            """, Long.class);
+
+    private final ReactiveRedisTemplate<String, String> stringRedisTemplate;
+
+    private final MovieCacheProperties properties;
+
+    /**
+     * Record that the catalog index is out of date; only the first write of a burst sets the mark
+     */
+    public Mono<Boolean> markDirty() {
+        return stringRedisTemplate.execute(MARK_DIRTY_SCRIPT,
+                        List.of(CATALOG_DIRTY_KEY, CATALOG_LAST_WRITE_KEY),
+                        List.of(String.valueOf(properties.getLease().getStaleTtl().toMillis())))
+                .next()
+                .map(marked -> marked == 1L)
+                .doOnNext(first -> {
+                    if (first) {
+                        log.debug("Catalog index marked dirty, rebuild due in {}",
+                                properties.getCatalogInvalidation().getWindow());
+                    }
+                });
+    }
+
+    /**
+     * Redis time in microseconds, taken before a rebuild reads the ids it will publish
+     */
+    public Mono<Long> rebuildStart() {
+        return stringRedisTemplate.execute(TIME_SCRIPT, List.of(), List.of()).next();
+    }
+
+    /**
+     * Size of the fresh catalog index; empty when it is missing or out of date past the window
+     */
+    public Mono<Long> readIndexSize() {
+        return stringRedisTemplate.execute(READ_INDEX_SCRIPT,
+                        List.of(CATALOG_INDEX_KEY, CATALOG_DIRTY_KEY),
+                        List.of(String.valueOf(properties.getCatalogInvalidation().getWindow().toNanos() / 1_000)))
+                .next()
+                .doOnNext(size -> {
+                    if (size < 0) {
+                        log.debug("Catalog index out of date past the invalidation window");
+                    }
+                })
+                .filter(size -> size > 0);
+    }
+
+    /**
+     * Move a fully built index into place, clearing the dirty mark if the rebuild covers it
+     */
+    public Mono<Boolean> publishIndex(String buildKey, long rebuildStartedAtMicros) {
+        return stringRedisTemplate.execute(PUBLISH_INDEX_SCRIPT,
+                        List.of(buildKey, CATALOG_INDEX_KEY, CATALOG_DIRTY_KEY, CATALOG_LAST_WRITE_KEY),
+                        List.of(String.valueOf(rebuildStartedAtMicros)))
+                .next()
+                .map(cleared -> true);
+    }
+}
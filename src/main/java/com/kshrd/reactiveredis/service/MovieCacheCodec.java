@@ -0,0 +1,189 @@
+package com.kshrd.reactiveredis.service;
+
+import com.kshrd.reactiveredis.common.codec.CachedMovieRedisSerializer;
+import com.kshrd.reactiveredis.common.property.MovieCacheProperties;
+import com.kshrd.reactiveredis.model.dto.CachedMovie;
+import com.kshrd.reactiveredis.model.response.MovieResponse;
+import com.kshrd.reactiveredis.model.response.ReviewResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Size-aware (de)serialization of cached movie values.
+ * Small payloads are handled inline on the calling thread, which is usually
+ * a Netty event loop; payloads at or above the offload threshold run on a
+ * bounded worker pool so one large value cannot stall every connection on
+ * that loop. When the pool's queue is full the work falls back to inline.
+ */
+@Component
+@Slf4j
+public class MovieCacheCodec {
+
+    private static final String TIMER_NAME = "movie.cache.codec.time";
+
+    private final CachedMovieRedisSerializer serializer;
+
+    private final MovieCacheProperties.Codec codec;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Scheduler scheduler;
+
+    private final Timer inlineDecode;
+
+    private final Timer inlineEncode;
+
+    private final Timer offloadedDecode;
+
+    private final Timer offloadedEncode;
+
+    private final Counter rejected;
+
+    public MovieCacheCodec(
+            CachedMovieRedisSerializer serializer,
+            MovieCacheProperties properties,
+            MeterRegistry meterRegistry) {
+        this.serializer = serializer;
+        this.codec = properties.getCodec();
+        this.executor = new ThreadPoolExecutor(
+                codec.getOffloadThreads(), codec.getOffloadThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(codec.getOffloadQueueCapacity()),
+                new CustomizableThreadFactory("movie-codec-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.scheduler = Schedulers.fromExecutorService(executor, "movie-codec");
+
+        this.inlineDecode = timer(meterRegistry, "inline", "decode");
+        this.inlineEncode = timer(meterRegistry, "inline", "encode");
+        this.offloadedDecode = timer(meterRegistry, "offloaded", "decode");
+        this.offloadedEncode = timer(meterRegistry, "offloaded", "encode");
+        this.rejected = meterRegistry.counter("movie.cache.codec.rejected");
+        Gauge.builder("movie.cache.codec.queue.depth", executor, e -> e.getQueue().size())
+                .description("Offloaded (de)serialization tasks waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("movie.cache.codec.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Workers currently (de)serializing")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.dispose();
+    }
+
+    /**
+     * Decode one raw value; empty when the value is absent
+     */
+    public Mono<CachedMovie> decode(ByteBuffer value) {
+        if (value == null) {
+            return Mono.empty();
+        }
+        return run(value.remaining(), inlineDecode, offloadedDecode, () -> serializer.deserialize(value));
+    }
+
+    /**
+     * Decode an MGET result as one unit, keeping positions; absent values stay null
+     */
+    public Mono<List<CachedMovie>> decodeAll(List<ByteBuffer> values) {
+        long size = 0;
+        for (ByteBuffer value : values) {
+            size += value == null ? 0 : value.remaining();
+        }
+
+        return run(size, inlineDecode, offloadedDecode, () -> {
+            List<CachedMovie> entries = new ArrayList<>(values.size());
+            for (ByteBuffer value : values) {
+                entries.add(value == null ? null : serializer.deserialize(value));
+            }
+            return entries;
+        });
+    }
+
+    /**
+     * Encode one entry
+     */
+    public Mono<ByteBuffer> encode(CachedMovie entry) {
+        return run(estimateSize(entry), inlineEncode, offloadedEncode, () -> serializer.write(entry));
+    }
+
+    /**
+     * Encode several entries as one unit, keeping their order
+     */
+    public Mono<List<ByteBuffer>> encodeAll(List<CachedMovie> entries) {
+        long size = 0;
+        for (CachedMovie entry : entries) {
+            size += estimateSize(entry);
+        }
+
+        return run(size, inlineEncode, offloadedEncode, () -> {
+            List<ByteBuffer> values = new ArrayList<>(entries.size());
+            for (CachedMovie entry : entries) {
+                values.add(serializer.write(entry));
+            }
+            return values;
+        });
+    }
+
+    private <T> Mono<T> run(long size, Timer inline, Timer offloaded, Callable<T> work) {
+        if (size < codec.getOffloadThreshold()) {
+            return Mono.fromCallable(() -> inline.recordCallable(work));
+        }
+
+        return Mono.fromCallable(() -> offloaded.recordCallable(work))
+                .subscribeOn(scheduler)
+                .onErrorResume(RejectedExecutionException.class, e -> {
+                    rejected.increment();
+                    log.debug("Codec pool saturated, handling {} bytes inline", size);
+                    return Mono.fromCallable(() -> inline.recordCallable(work));
+                });
+    }
+
+    /**
+     * Rough upper bound of the encoded size, cheap enough to compute inline
+     */
+    private static long estimateSize(CachedMovie entry) {
+        MovieResponse movie = entry.getMovie();
+        if (movie == null) {
+            return 0;
+        }
+
+        long size = 64 + length(movie.getTitle()) + length(movie.getDescription())
+                + length(movie.getGenre()) + length(movie.getDirector());
+        if (movie.getReviews() != null) {
+            for (ReviewResponse review : movie.getReviews()) {
+                size += 32 + length(review.getReviewerName()) + length(review.getComment());
+            }
+        }
+        return size;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String mode, String operation) {
+        return Timer.builder(TIMER_NAME)
+                .description("Time spent (de)serializing cache values; mode=inline is time on the calling event loop")
+                .tag("mode", mode)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
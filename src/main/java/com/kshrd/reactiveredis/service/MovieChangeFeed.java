@@ -0,0 +1,158 @@
+package com.kshrd.reactiveredis.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kshrd.reactiveredis.common.enumeration.MovieChangeType;
+import com.kshrd.reactiveredis.common.property.MovieChangesProperties;
+import com.kshrd.reactiveredis.model.response.MovieChangeEvent;
+import com.kshrd.reactiveredis.model.response.MovieResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.MOVIE_CHANGES_STREAM;
+
+/**
+ * Feed of movie mutations kept in a capped Redis Stream.
+ * <p>
+ * Each create, update and delete is appended with XADD MAXLEN ~, so the
+ * stream holds roughly the latest configured number of events. Subscribers
+ * tail it from a stream id with non-blocking XREADs that are only issued once
+ * the previous batch has been consumed, so a slow subscriber holds at most one
+ * batch and never a connection blocked in Redis. A subscriber further behind
+ * than the retained events resumes from the oldest one it can still read.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MovieChangeFeed {
+
+    /**
+     * Appends one event, trimming the stream to about the given length
+     */
+    private static final RedisScript<String> APPEND_SCRIPT = RedisScript.of("""
+            return redis.call('XADD', KEYS[1], 'MAXLEN', '~', ARGV[1], '*',
+                'type', ARGV[2], 'movieId', ARGV[3], 'movie', ARGV[4])
+            """, String.class);
+
+    private static final Pattern STREAM_ID = Pattern.compile("\\d+(-\\d+)?");
+
+    private final ReactiveRedisTemplate<String, String> stringRedisTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final MovieChangesProperties properties;
+
+    /**
+     * Append a change; failures are logged and never fail the mutation
+     */
+    public Mono<Void> publish(MovieChangeType type, Long movieId, MovieResponse movie) {
+        return Mono.fromCallable(() -> movie == null ? "" : objectMapper.writeValueAsString(movie))
+                .flatMap(payload -> stringRedisTemplate.execute(APPEND_SCRIPT, List.of(MOVIE_CHANGES_STREAM),
+                                List.of(String.valueOf(properties.getMaxLength()), type.name(),
+                                        String.valueOf(movieId), payload))
+                        .next())
+                .doOnNext(recordId -> log.debug("Published {} of movie {} as {}", type, movieId, recordId))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Failed to publish {} of movie {} to the change feed", type, movieId, e);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Append the same kind of change for several movies
+     */
+    public Mono<Void> publishAll(MovieChangeType type, Collection<MovieResponse> movies) {
+        return Flux.fromIterable(movies)
+                .flatMap(movie -> publish(type, movie.getId(), movie))
+                .then();
+    }
+
+    /**
+     * Tail the feed after a stream id, or from now when none is given.
+     * Each event carries its stream id as the SSE id, so a client can resume
+     * with it after reconnecting.
+     */
+    public Flux<ServerSentEvent<MovieChangeEvent>> changes(String since) {
+        if (since != null && !since.isBlank() && !STREAM_ID.matcher(since.trim()).matches()) {
+            return Flux.error(new IllegalArgumentException("Invalid change feed position: " + since));
+        }
+
+        Mono<String> start = since == null || since.isBlank()
+                ? latestId()
+                : Mono.just(since.trim());
+        return start.flatMapMany(this::tail);
+    }
+
+    private Flux<ServerSentEvent<MovieChangeEvent>> tail(String startId) {
+        AtomicReference<String> lastId = new AtomicReference<>(startId);
+        StreamReadOptions options = StreamReadOptions.empty().count(properties.getBatchSize());
+
+        return Flux.defer(() -> stringRedisTemplate.<String, String>opsForStream()
+                        .read(options, StreamOffset.create(MOVIE_CHANGES_STREAM, ReadOffset.from(lastId.get())))
+                        .collectList()
+                        .flatMapMany(batch -> batch.isEmpty()
+                                ? Mono.delay(properties.getPollInterval()).thenMany(Flux.<MapRecord<String, String, String>>empty())
+                                : Flux.fromIterable(batch)))
+                .repeat()
+                .doOnNext(record -> lastId.set(record.getId().getValue()))
+                .map(this::toEvent);
+    }
+
+    /**
+     * Id of the newest event, so a feed without a position starts from now
+     */
+    private Mono<String> latestId() {
+        return stringRedisTemplate.<String, String>opsForStream()
+                .reverseRange(MOVIE_CHANGES_STREAM, Range.unbounded(), Limit.limit().count(1))
+                .next()
+                .map(record -> record.getId().getValue())
+                .defaultIfEmpty("0-0");
+    }
+
+    private ServerSentEvent<MovieChangeEvent> toEvent(MapRecord<String, String, String> record) {
+        Map<String, String> fields = record.getValue();
+        MovieChangeType type = MovieChangeType.valueOf(fields.get("type"));
+        MovieChangeEvent event = MovieChangeEvent.builder()
+                .type(type)
+                .movieId(Long.valueOf(fields.get("movieId")))
+                .movie(readMovie(fields.get("movie")))
+                .changedAt(Instant.ofEpochMilli(record.getId().getTimestamp()))
+                .build();
+
+        return ServerSentEvent.builder(event)
+                .id(record.getId().getValue())
+                .event(type.name())
+                .build();
+    }
+
+    private MovieResponse readMovie(String payload) {
+        if (payload == null || payload.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(payload, MovieResponse.class);
+        } catch (Exception e) {
+            log.warn("Unreadable movie in change feed event", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.kshrd.reactiveredis.service;
+
+import com.kshrd.reactiveredis.common.property.MovieExistenceProperties;
+import com.kshrd.reactiveredis.repository.MovieRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.MISSING_MOVIE_PREFIX;
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.MOVIE_FILTER_KEY;
+
+/**
+ * Answers "can this movie id exist?" without touching the database, so
+ * lookups of unknown ids (such as scrapers walking id ranges) stop at Redis.
+ * <p>
+ * Two structures back the answer: a Bloom filter of every existing id, kept
+ * as a Redis bitmap shared by all nodes, and short-lived negative entries for
+ * ids recently found missing. Both are checked in one round trip. New movies
+ * set their bits and drop any negative entry for their id once their insert
+ * has committed, never before; a lookup that missed before the commit only
+ * writes its negative entry if the filter still lacks one of the id's bits,
+ * checked in the same script, so a miss that loses the race to the create
+ * writes nothing. A Bloom filter cannot forget, so deleted movies get a
+ * negative entry unconditionally and their bits are cleared by the periodic
+ * rebuild.
+ * <p>
+ * A rebuild allocates a fresh bitmap under a side key, only then reads the
+ * ids, and renames the bitmap into place. A movie committed before the read
+ * is in the ids; one committed after it finds the side key and is added to
+ * both, so none are lost. Until the first build completes, and whenever
+ * Redis fails, every id is let through.
+ */
+@Component
+@Slf4j
+public class MovieExistenceFilter {
+
+    private static final String BUILDING_KEY = MOVIE_FILTER_KEY + ":building";
+
+    private static final String REBUILT_KEY = MOVIE_FILTER_KEY + ":rebuilt";
+
+    private static final int REBUILD_CHUNK = 1_000;
+
+    /**
+     * 0 when the id has a negative entry or one of its bits (ARGV) is unset in
+     * the filter; 1 otherwise, including while there is no filter yet
+     */
+    private static final RedisScript<Long> MIGHT_EXIST_SCRIPT = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                return 0
+            end
+            if redis.call('EXISTS', KEYS[2]) == 0 then
+                return 1
+            end
+            for i = 1, #ARGV do
+                if redis.call('GETBIT', KEYS[2], ARGV[i]) == 0 then
+                    return 0
+                end
+            end
+            return 1
+            """, Long.class);
+
+    /**
+     * Sets KEYS[1] to expire in ARGV[1] millis only if the filter (KEYS[2])
+     * lacks one of the id's bits (ARGV[2..n]); without a filter there is no
+     * telling whether the id was just added, so nothing is written
+     */
+    private static final RedisScript<Long> MARK_MISSING_SCRIPT = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[2]) == 0 then
+                return 0
+            end
+            for i = 2, #ARGV do
+                if redis.call('GETBIT', KEYS[2], ARGV[i]) == 0 then
+                    redis.call('SET', KEYS[1], '1', 'PX', ARGV[1])
+                    return 1
+                end
+            end
+            return 0
+            """, Long.class);
+
+    /**
+     * Sets the bits (ARGV[2..n]) in each of the first ARGV[1] filter keys that
+     * exists, then unlinks the remaining keys (negative entries)
+     */
+    private static final RedisScript<Long> ADD_SCRIPT = RedisScript.of("""
+            local filters = tonumber(ARGV[1])
+            for k = 1, filters do
+                if redis.call('EXISTS', KEYS[k]) == 1 then
+                    for i = 2, #ARGV do
+                        redis.call('SETBIT', KEYS[k], ARGV[i], 1)
+                    end
+                end
+            end
+            if #KEYS > filters then
+                redis.call('UNLINK', unpack(KEYS, filters + 1))
+            end
+            return 1
+            """, Long.class);
+
+    /**
+     * Replace KEYS[1] with an all-zero bitmap of ARGV[1] bits in one step
+     */
+    private static final RedisScript<Long> ALLOCATE_SCRIPT = RedisScript.of("""
+            redis.call('DEL', KEYS[1])
+            return redis.call('SETBIT', KEYS[1], tonumber(ARGV[1]) - 1, 0)
+            """, Long.class);
+
+    private final ReactiveRedisTemplate<String, String> stringRedisTemplate;
+
+    private final MovieRepository movieRepository;
+
+    private final MovieExistenceProperties properties;
+
+    private final long bits;
+
+    private final int hashes;
+
+    private Disposable subscription;
+
+    public MovieExistenceFilter(ReactiveRedisTemplate<String, String> stringRedisTemplate,
+                                MovieRepository movieRepository,
+                                MovieExistenceProperties properties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.movieRepository = movieRepository;
+        this.properties = properties;
+
+        // Optimal size and hash count for the expected ids at the target false positive rate
+        double n = Math.max(1, properties.getExpectedIds());
+        double size = -n * Math.log(properties.getFalsePositiveRate()) / (Math.log(2) * Math.log(2));
+        this.bits = Math.min(1L << 32, (long) Math.ceil(size));
+        this.hashes = Math.max(1, (int) Math.round(bits / n * Math.log(2)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscription = Flux.interval(Duration.ZERO, properties.getRebuildInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> rebuildIfDue(), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * False only when the movie certainly does not exist
+     */
+    public Mono<Boolean> mightExist(Long movieId) {
+        return stringRedisTemplate.execute(MIGHT_EXIST_SCRIPT,
+                        List.of(MISSING_MOVIE_PREFIX + movieId, MOVIE_FILTER_KEY), offsets(movieId))
+                .next()
+                .map(result -> result == 1L)
+                .onErrorResume(e -> {
+                    log.warn("Existence check for movie {} failed, letting it through", movieId, e);
+                    return Mono.just(true);
+                });
+    }
+
+    /**
+     * Record that a movie was just found missing, unless it has been added
+     * since the lookup
+     */
+    public Mono<Void> markMissing(Long movieId) {
+        List<String> args = new ArrayList<>(hashes + 1);
+        args.add(String.valueOf(properties.getMissingTtl().toMillis()));
+        args.addAll(offsets(movieId));
+
+        return stringRedisTemplate.execute(MARK_MISSING_SCRIPT,
+                        List.of(MISSING_MOVIE_PREFIX + movieId, MOVIE_FILTER_KEY), args)
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Failed to mark movie {} missing", movieId, e);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Record that a movie was just deleted; its bits stay set until the next
+     * rebuild, so only the negative entry can reject it
+     */
+    public Mono<Void> markDeleted(Long movieId) {
+        return stringRedisTemplate.opsForValue()
+                .set(MISSING_MOVIE_PREFIX + movieId, "1", properties.getMissingTtl())
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Failed to mark movie {} missing", movieId, e);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Add new movies to the filter and drop any negative entries for their ids
+     */
+    public Mono<Void> added(Collection<Long> movieIds) {
+        if (movieIds.isEmpty()) {
+            return Mono.empty();
+        }
+
+        List<String> keys = new ArrayList<>(movieIds.size() + 2);
+        keys.add(MOVIE_FILTER_KEY);
+        keys.add(BUILDING_KEY);
+        movieIds.forEach(movieId -> keys.add(MISSING_MOVIE_PREFIX + movieId));
+
+        return setBits(keys, 2, movieIds)
+                .onErrorResume(e -> {
+                    // The filter would now reject these ids, so drop it until the next rebuild
+                    log.warn("Failed to add movies {} to the existence filter, dropping it", movieIds, e);
+                    return stringRedisTemplate.delete(MOVIE_FILTER_KEY)
+                            .then()
+                            .onErrorResume(ignored -> Mono.empty());
+                });
+    }
+
+    /**
+     * Rebuild the filter from the table unless another node has within the interval
+     */
+    private Mono<Void> rebuildIfDue() {
+        return stringRedisTemplate.opsForValue()
+                .setIfAbsent(REBUILT_KEY, String.valueOf(System.currentTimeMillis()), properties.getRebuildInterval())
+                .filter(Boolean::booleanValue)
+                .flatMap(due -> rebuild())
+                .doOnNext(count -> log.info("Rebuilt movie existence filter from {} movies ({} bits, {} hashes)",
+                        count, bits, hashes))
+                .onErrorResume(e -> {
+                    // Let the next tick, on any node, try again
+                    log.error("Failed to rebuild movie existence filter", e);
+                    return stringRedisTemplate.delete(REBUILT_KEY)
+                            .onErrorResume(ignored -> Mono.empty());
+                })
+                .then();
+    }
+
+    private Mono<Long> rebuild() {
+        // The side key must exist before the ids are read, or a movie committed
+        // after the read would skip it and be missing from the renamed filter
+        return stringRedisTemplate.execute(ALLOCATE_SCRIPT, List.of(BUILDING_KEY), List.of(String.valueOf(bits)))
+                .then()
+                .thenMany(Flux.defer(movieRepository::findAllIds))
+                .buffer(REBUILD_CHUNK)
+                .concatMap(chunk -> setBits(List.of(BUILDING_KEY), 1, chunk).thenReturn((long) chunk.size()))
+                .reduce(0L, Long::sum)
+                .flatMap(count -> stringRedisTemplate.rename(BUILDING_KEY, MOVIE_FILTER_KEY)
+                        .thenReturn(count));
+    }
+
+    private Mono<Void> setBits(List<String> keys, int filters, Collection<Long> movieIds) {
+        List<String> args = new ArrayList<>(movieIds.size() * hashes + 1);
+        args.add(String.valueOf(filters));
+        movieIds.forEach(movieId -> args.addAll(offsets(movieId)));
+
+        return stringRedisTemplate.execute(ADD_SCRIPT, keys, args).then();
+    }
+
+    /**
+     * Bit offsets of an id, by double hashing two mixes of the id
+     */
+    private List<String> offsets(Long movieId) {
+        long h1 = mix(movieId);
+        long h2 = mix(h1) | 1;
+        List<String> offsets = new ArrayList<>(hashes);
+        for (int i = 0; i < hashes; i++) {
+            offsets.add(String.valueOf(Math.floorMod(h1 + i * h2, bits)));
+        }
+        return offsets;
+    }
+
+    /**
+     * SplitMix64 finalizer
+     */
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
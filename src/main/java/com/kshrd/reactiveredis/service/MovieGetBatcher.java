@@ -0,0 +1,152 @@
+package com.kshrd.reactiveredis.service;
+
+import com.kshrd.reactiveredis.common.property.MovieCacheProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.Sinks;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects single-key movie GETs arriving within a short window (or until the
+ * batch is full) and sends them to Redis as one MGET, fanning the results back
+ * out to each caller.
+ * <p>
+ * Callers on any thread add their GET to a lock-free queue; whichever caller
+ * finds the queue idle drains it into the batching flux, so emission is
+ * serialized without callers spinning on each other. A GET left unanswered,
+ * for example after the flusher was stopped, fails after the timeout.
+ */
+@Component
+@Slf4j
+public class MovieGetBatcher {
+
+    private final ReactiveRedisTemplate<String, ByteBuffer> movieRedisTemplate;
+
+    private final MovieCacheProperties.GetBatching batching;
+
+    private final DistributionSummary batchSizes;
+
+    private final Queue<PendingGet> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger draining = new AtomicInteger();
+
+    /**
+     * Only ever emitted to by the single drainer, so it needs no serialization of its own
+     */
+    private final Sinks.Many<PendingGet> pending = Sinks.unsafe().many().unicast().onBackpressureBuffer();
+
+    private Disposable flusher;
+
+    public MovieGetBatcher(
+            @Qualifier("movieRedisTemplate") ReactiveRedisTemplate<String, ByteBuffer> movieRedisTemplate,
+            MovieCacheProperties properties,
+            MeterRegistry meterRegistry) {
+        this.movieRedisTemplate = movieRedisTemplate;
+        this.batching = properties.getGetBatching();
+        this.batchSizes = DistributionSummary.builder("movie.cache.get.batch.size")
+                .description("Number of keys sent per batched MGET")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!batching.isEnabled()) {
+            return;
+        }
+
+        flusher = pending.asFlux()
+                .bufferTimeout(batching.getMaxBatchSize(), batching.getWindow())
+                .flatMap(this::flush)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher != null) {
+            flusher.dispose();
+        }
+    }
+
+    /**
+     * Get a raw movie entry, batched with concurrent GETs into one MGET
+     */
+    public Mono<ByteBuffer> get(String key) {
+        if (!batching.isEnabled()) {
+            return movieRedisTemplate.opsForValue().get(key);
+        }
+
+        return Mono.<ByteBuffer>create(sink -> enqueue(new PendingGet(key, sink)))
+                .timeout(batching.getTimeout());
+    }
+
+    private void enqueue(PendingGet get) {
+        queue.offer(get);
+        if (draining.getAndIncrement() != 0) {
+            // The current drainer will pick it up
+            return;
+        }
+
+        int missed = 1;
+        do {
+            PendingGet next;
+            while ((next = queue.poll()) != null) {
+                if (pending.tryEmitNext(next).isFailure()) {
+                    next.sink().error(new IllegalStateException("Movie GET batching is stopped"));
+                }
+            }
+            missed = draining.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private Mono<Void> flush(List<PendingGet> batch) {
+        // The same key may be requested by several callers in one window
+        Map<String, List<MonoSink<ByteBuffer>>> waiters = new LinkedHashMap<>();
+        for (PendingGet get : batch) {
+            waiters.computeIfAbsent(get.key(), k -> new ArrayList<>()).add(get.sink());
+        }
+        List<String> keys = new ArrayList<>(waiters.keySet());
+        batchSizes.record(keys.size());
+
+        return movieRedisTemplate.opsForValue()
+                .multiGet(keys)
+                .doOnNext(values -> {
+                    for (int i = 0; i < keys.size(); i++) {
+                        ByteBuffer value = values.get(i);
+                        waiters.get(keys.get(i)).forEach(sink -> {
+                            if (value != null) {
+                                sink.success(value);
+                            } else {
+                                sink.success();
+                            }
+                        });
+                    }
+                })
+                .doOnError(e -> {
+                    log.error("Batched GET of {} keys failed", keys.size(), e);
+                    waiters.values().forEach(sinks -> sinks.forEach(sink -> sink.error(e)));
+                })
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private record PendingGet(String key, MonoSink<ByteBuffer> sink) {
+    }
+}
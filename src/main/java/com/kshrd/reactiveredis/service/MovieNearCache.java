@@ -0,0 +1,58 @@
+package com.kshrd.reactiveredis.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kshrd.reactiveredis.common.property.MovieCacheProperties;
+import com.kshrd.reactiveredis.model.dto.CachedMovie;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded in-process (L1) cache for single movies.
+ * Entries are evicted by size and TTL, and dropped on every node
+ * through {@link CacheInvalidationBroadcaster} when a movie changes.
+ */
+@Component
+@Slf4j
+public class MovieNearCache {
+
+    private final Cache<Long, CachedMovie> cache;
+
+    public MovieNearCache(MovieCacheProperties properties) {
+        MovieCacheProperties.NearCache near = properties.getNear();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(near.getMaximumSize())
+                .expireAfterWrite(near.getTtl())
+                .build();
+    }
+
+    /**
+     * Get movie entry from L1, or null on miss
+     */
+    public CachedMovie get(Long movieId) {
+        return cache.getIfPresent(movieId);
+    }
+
+    /**
+     * Put movie entry into L1
+     */
+    public void put(Long movieId, CachedMovie entry) {
+        cache.put(movieId, entry);
+    }
+
+    /**
+     * Drop a single movie from L1
+     */
+    public void invalidate(Long movieId) {
+        cache.invalidate(movieId);
+        log.debug("Near cache invalidated movie {}", movieId);
+    }
+
+    /**
+     * Drop every movie from L1
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        log.debug("Near cache cleared");
+    }
+}
@@ -0,0 +1,236 @@
+package com.kshrd.reactiveredis.service;
+
+import com.kshrd.reactiveredis.model.response.MovieResponse;
+import com.kshrd.reactiveredis.repository.MovieRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.GENRE_INDEX_PREFIX;
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.RATING_INDEX_KEY;
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.SECONDARY_INDEX_READY_KEY;
+
+/**
+ * Redis secondary indexes for the genre and top-rated queries: one SET of
+ * movie ids per genre and one ZSET of movie ids scored by rating.
+ * <p>
+ * The indexes are kept up to date by the movie mutations. A ready marker is
+ * written once they have been fully built, so after a Redis flush (or a
+ * failed index write, which drops the marker) reads fall back to the database
+ * and one node rebuilds the indexes in the background under the lease.
+ * Rebuilds only add entries; ids of movies deleted meanwhile, or moved to
+ * another genre, are pruned by the readers that find them missing or in the
+ * wrong genre.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MovieSecondaryIndex {
+
+    private static final int REBUILD_CHUNK = 1_000;
+
+    private final ReactiveRedisTemplate<String, String> stringRedisTemplate;
+
+    private final MovieRepository movieRepository;
+
+    private final CacheService cacheService;
+
+    private final RequestCoalescer requestCoalescer;
+
+    /**
+     * Index a new movie
+     */
+    public Mono<Void> add(MovieResponse movie) {
+        return addAll(List.of(movie));
+    }
+
+    /**
+     * Index several new movies, one SADD per genre and a single ZADD
+     */
+    public Mono<Void> addAll(Collection<MovieResponse> movies) {
+        List<IndexEntry> entries = movies.stream()
+                .map(movie -> new IndexEntry(movie.getId(), movie.getGenre(), movie.getRating()))
+                .toList();
+        return guard(writeEntries(entries), "add");
+    }
+
+    /**
+     * Re-index an updated movie, moving it out of its previous genre if that changed
+     */
+    public Mono<Void> update(String previousGenre, MovieResponse movie) {
+        String id = String.valueOf(movie.getId());
+        Mono<Long> leaveGenre = previousGenre == null || Objects.equals(previousGenre, movie.getGenre())
+                ? Mono.empty()
+                : stringRedisTemplate.opsForSet().remove(GENRE_INDEX_PREFIX + previousGenre, id);
+        Mono<Long> dropRating = movie.getRating() == null
+                ? stringRedisTemplate.opsForZSet().remove(RATING_INDEX_KEY, id)
+                : Mono.empty();
+        Mono<Void> write = writeEntries(List.of(new IndexEntry(movie.getId(), movie.getGenre(), movie.getRating())));
+
+        return guard(Flux.merge(leaveGenre, dropRating).then(write), "update");
+    }
+
+    /**
+     * Remove a deleted movie from the indexes
+     */
+    public Mono<Void> remove(Long movieId, String genre) {
+        return guard(prune(List.of(movieId), genre), "remove");
+    }
+
+    /**
+     * Remove ids that no longer exist, as found by a reader
+     */
+    public Mono<Void> prune(Collection<Long> movieIds, String genre) {
+        if (movieIds.isEmpty()) {
+            return Mono.empty();
+        }
+
+        Object[] ids = movieIds.stream().map(String::valueOf).toArray();
+        Mono<Long> genreRemoval = genre == null
+                ? Mono.empty()
+                : stringRedisTemplate.opsForSet().remove(GENRE_INDEX_PREFIX + genre, ids);
+        return Flux.merge(genreRemoval, stringRedisTemplate.opsForZSet().remove(RATING_INDEX_KEY, ids))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Failed to prune {} from secondary indexes", movieIds, e);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Remove ids from a genre's set that a reader found to be in another genre
+     */
+    public Mono<Void> pruneGenre(Collection<Long> movieIds, String genre) {
+        if (movieIds.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return stringRedisTemplate.opsForSet()
+                .remove(GENRE_INDEX_PREFIX + genre, movieIds.stream().map(String::valueOf).toArray())
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Failed to prune {} from genre {}", movieIds, genre, e);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Ids of the movies in a genre, in id order; empty when the index is not ready
+     */
+    public Mono<List<Long>> genreIds(String genre) {
+        return whenReady(stringRedisTemplate.opsForSet()
+                .members(GENRE_INDEX_PREFIX + genre)
+                .map(Long::valueOf)
+                .sort()
+                .collectList());
+    }
+
+    /**
+     * Ids of the highest rated movies, best first; empty when the index is not ready
+     */
+    public Mono<List<Long>> topRatedIds(int limit) {
+        if (limit <= 0) {
+            return Mono.just(List.of());
+        }
+
+        return whenReady(stringRedisTemplate.opsForZSet()
+                .reverseRange(RATING_INDEX_KEY, Range.closed(0L, limit - 1L))
+                .map(Long::valueOf)
+                .collectList());
+    }
+
+    /**
+     * Build the indexes from the database and mark them ready
+     */
+    public Mono<Long> rebuild() {
+        return movieRepository.findAllIndexEntries()
+                .map(row -> new IndexEntry(row.getId(), row.getGenre(), row.getRating()))
+                .buffer(REBUILD_CHUNK)
+                .concatMap(chunk -> writeEntries(chunk).thenReturn((long) chunk.size()))
+                .reduce(0L, Long::sum)
+                .flatMap(count -> stringRedisTemplate.opsForValue()
+                        .set(SECONDARY_INDEX_READY_KEY, String.valueOf(System.currentTimeMillis()))
+                        .thenReturn(count));
+    }
+
+    private Mono<List<Long>> whenReady(Mono<List<Long>> read) {
+        return Mono.zip(stringRedisTemplate.hasKey(SECONDARY_INDEX_READY_KEY), read)
+                .flatMap(result -> {
+                    if (Boolean.TRUE.equals(result.getT1())) {
+                        return Mono.just(result.getT2());
+                    }
+                    rebuildInBackground();
+                    return Mono.<List<Long>>empty();
+                })
+                .onErrorResume(e -> {
+                    log.error("Secondary index read failed", e);
+                    return Mono.empty();
+                });
+    }
+
+    private void rebuildInBackground() {
+        requestCoalescer.coalesce(SECONDARY_INDEX_READY_KEY, () ->
+                        cacheService.tryAcquireLease(SECONDARY_INDEX_READY_KEY)
+                                .flatMap(token -> Mono.usingWhen(
+                                        Mono.just(token),
+                                        t -> rebuild(),
+                                        t -> cacheService.releaseLease(SECONDARY_INDEX_READY_KEY, t)
+                                )))
+                .subscribe(
+                        count -> log.info("Rebuilt secondary indexes from {} movies", count),
+                        e -> log.warn("Secondary index rebuild failed", e)
+                );
+    }
+
+    private Mono<Void> writeEntries(Collection<IndexEntry> entries) {
+        Map<String, List<String>> idsByGenre = new HashMap<>();
+        List<ZSetOperations.TypedTuple<String>> ratings = new ArrayList<>();
+        for (IndexEntry entry : entries) {
+            String id = String.valueOf(entry.id());
+            if (entry.genre() != null) {
+                idsByGenre.computeIfAbsent(entry.genre(), g -> new ArrayList<>()).add(id);
+            }
+            if (entry.rating() != null) {
+                ratings.add(new DefaultTypedTuple<>(id, entry.rating().doubleValue()));
+            }
+        }
+
+        Flux<Long> genreWrites = Flux.fromIterable(idsByGenre.entrySet())
+                .flatMap(genre -> stringRedisTemplate.opsForSet()
+                        .add(GENRE_INDEX_PREFIX + genre.getKey(), genre.getValue().toArray(new String[0])));
+        Mono<Long> ratingWrite = ratings.isEmpty()
+                ? Mono.empty()
+                : stringRedisTemplate.opsForZSet().addAll(RATING_INDEX_KEY, ratings);
+
+        return Flux.merge(genreWrites, ratingWrite).then();
+    }
+
+    /**
+     * A failed index write leaves the index incomplete, so drop the ready marker to force a rebuild
+     */
+    private Mono<Void> guard(Mono<Void> write, String action) {
+        return write.onErrorResume(e -> {
+            log.warn("Failed to {} secondary index entries, forcing a rebuild", action, e);
+            return stringRedisTemplate.delete(SECONDARY_INDEX_READY_KEY)
+                    .then()
+                    .onErrorResume(ignored -> Mono.empty());
+        });
+    }
+
+    private record IndexEntry(Long id, String genre, BigDecimal rating) {
+    }
+}
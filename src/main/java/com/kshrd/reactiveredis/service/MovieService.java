@@ -1,20 +1,67 @@
 package com.kshrd.reactiveredis.service;
 
+import com.kshrd.reactiveredis.base.CursorPagedResponse;
+import com.kshrd.reactiveredis.base.PagedResponse;
+import com.kshrd.reactiveredis.common.constant.CacheTag;
+import com.kshrd.reactiveredis.common.enumeration.MovieChangeType;
+import com.kshrd.reactiveredis.common.enumeration.MovieSortOrder;
+import com.kshrd.reactiveredis.common.property.MovieDetailsProperties;
+import com.kshrd.reactiveredis.common.property.MovieExportProperties;
+import com.kshrd.reactiveredis.common.property.MovieIngestProperties;
+import com.kshrd.reactiveredis.common.property.MovieReviewProperties;
+import com.kshrd.reactiveredis.model.dto.CachedMoviePage;
+import com.kshrd.reactiveredis.model.dto.CatalogSnapshot;
+import com.kshrd.reactiveredis.model.dto.MovieCursor;
 import com.kshrd.reactiveredis.model.entity.Movie;
+import com.kshrd.reactiveredis.model.entity.Review;
+import com.kshrd.reactiveredis.model.projection.MovieCursorProjection;
 import com.kshrd.reactiveredis.model.request.MovieRequest;
+import com.kshrd.reactiveredis.model.response.BulkIngestError;
+import com.kshrd.reactiveredis.model.response.BulkIngestProgress;
+import com.kshrd.reactiveredis.model.response.CacheClearProgress;
+import com.kshrd.reactiveredis.model.response.MovieChangeEvent;
+import com.kshrd.reactiveredis.model.response.MovieDetailsResponse;
 import com.kshrd.reactiveredis.model.response.MovieResponse;
+import com.kshrd.reactiveredis.model.response.MovieSuggestion;
 import com.kshrd.reactiveredis.model.response.ReviewResponse;
+import com.kshrd.reactiveredis.repository.MovieBulkRepository;
 import com.kshrd.reactiveredis.repository.MovieRepository;
 import com.kshrd.reactiveredis.repository.ReviewRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.CACHE_KEY_PREFIX;
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.CATALOG_INDEX_KEY;
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.MOVIE_DETAILS_PREFIX;
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.MOVIE_PAGE_PREFIX;
+import static com.kshrd.reactiveredis.utils.ResponseUtil.cursorResponse;
+import static com.kshrd.reactiveredis.utils.ResponseUtil.pagedResponse;
 
 @Service
 @RequiredArgsConstructor
@@ -24,30 +71,56 @@ public class MovieService {
     private final MovieRepository movieRepository;
     private final ReviewRepository reviewRepository;
     private final CacheService cacheService;
+    private final RequestCoalescer requestCoalescer;
+    private final MovieSecondaryIndex movieSecondaryIndex;
+    private final TitleSearchIndex titleSearchIndex;
+    private final MovieChangeFeed movieChangeFeed;
+    private final QueryResultCache queryResultCache;
+    private final MovieExistenceFilter movieExistenceFilter;
+    private final MovieBulkRepository movieBulkRepository;
+    private final MovieIngestProperties ingestProperties;
+    private final MovieExportProperties exportProperties;
+    private final MovieDetailsProperties detailsProperties;
+    private final MovieReviewProperties reviewProperties;
+    private final Validator validator;
+    private final TransactionalOperator transactionalOperator;
 
-    private static final Duration MOVIE_CACHE_TTL = Duration.ofMinutes(30);
-    private static final Duration ALL_MOVIES_CACHE_TTL = Duration.ofMinutes(15);
+    private static final Duration MOVIE_CACHE_TTL = Duration.ofHours(6);
+    private static final Duration MOVIE_TOMBSTONE_TTL = Duration.ofMinutes(5);
+    private static final Duration CATALOG_INDEX_TTL = Duration.ofMinutes(15);
+    private static final Duration MOVIE_PAGE_TTL = Duration.ofMinutes(1);
+    private static final int CATALOG_STREAM_CHUNK = 100;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SUGGESTIONS = 20;
 
     /**
-     * Create a new movie
+     * Create a new movie.
+     * Only the insert runs in the transaction; caches, indexes and the change
+     * feed are updated after it commits, so nothing points at a row that other
+     * connections cannot read yet.
      */
-    @Transactional
     public Mono<MovieResponse> createMovie(MovieRequest request) {
         log.info("Creating new movie: {}", request.getTitle());
 
-        return Mono.just(request)
-                .map(MovieRequest::toEntity)
-                .flatMap(movieRepository::save)
+        return transactionalOperator.transactional(Mono.just(request)
+                        .map(MovieRequest::toEntity)
+                        .flatMap(movieRepository::save))
                 .doOnSuccess(movie -> log.info("Movie created with ID: {}", movie.getId()))
+                .doOnNext(movie -> titleSearchIndex.added(movie.getId(), movie.getTitle(), movie.getRating()))
                 .flatMap(movie -> {
                     MovieResponse response = toMovieResponse(movie);
                     // Cache the newly created movie
-                    return cacheService.cacheMovie(movie.getId(), response, MOVIE_CACHE_TTL)
+                    return movieExistenceFilter.added(List.of(movie.getId()))
+                            .then(cacheService.cacheMovie(movie.getId(), response, MOVIE_CACHE_TTL))
+                            .then(movieSecondaryIndex.add(response))
+                            .then(movieChangeFeed.publish(MovieChangeType.CREATED, movie.getId(), response))
                             .thenReturn(response);
                 })
-                // Invalidate all movies cache since the list changed
+                // Invalidate the catalog index and the entries derived from the set of ids
                 .flatMap(response ->
                         cacheService.invalidateAllMovies()
+                                .then(cacheService.invalidateTags(CacheTag.created(List.of(response))))
+                                .then(queryResultCache.invalidate(queryNamespaces(null, response)))
                                 .thenReturn(response)
                 )
                 .onErrorResume(e -> {
@@ -57,24 +130,66 @@ public class MovieService {
     }
 
     /**
-     * Get all movies with caching
+     * Bulk-create movies from a stream, batch by batch.
+     * Each batch costs one multi-row INSERT, one pipelined cache write and one
+     * catalog invalidation. Invalid movies are reported in the batch progress
+     * and skipped; batches already written stay written if a later one fails.
+     */
+    public Flux<BulkIngestProgress> bulkCreateMovies(Flux<MovieRequest> requests) {
+        AtomicInteger batches = new AtomicInteger();
+        AtomicLong totalInserted = new AtomicLong();
+        AtomicLong totalRejected = new AtomicLong();
+
+        return requests
+                .index()
+                .buffer(ingestProperties.getBatchSize())
+                .concatMap(lines -> {
+                    List<Movie> valid = new ArrayList<>(lines.size());
+                    List<BulkIngestError> errors = new ArrayList<>();
+                    for (Tuple2<Long, MovieRequest> line : lines) {
+                        Set<ConstraintViolation<MovieRequest>> violations = validator.validate(line.getT2());
+                        if (violations.isEmpty()) {
+                            valid.add(line.getT2().toEntity());
+                        } else {
+                            errors.add(BulkIngestError.builder()
+                                    .line(line.getT1() + 1)
+                                    .title(line.getT2().getTitle())
+                                    .message(violations.stream()
+                                            .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                                            .sorted()
+                                            .collect(Collectors.joining("; ")))
+                                    .build());
+                        }
+                    }
+
+                    return insertAndCache(valid)
+                            .map(inserted -> BulkIngestProgress.builder()
+                                    .batch(batches.incrementAndGet())
+                                    .received(lines.size())
+                                    .inserted(inserted)
+                                    .rejected(errors.size())
+                                    .totalInserted(totalInserted.addAndGet(inserted))
+                                    .totalRejected(totalRejected.addAndGet(errors.size()))
+                                    .errors(errors)
+                                    .build());
+                })
+                .doOnNext(progress -> log.info("Bulk ingest batch {}: {} inserted, {} rejected",
+                        progress.getBatch(), progress.getInserted(), progress.getRejected()))
+                .doOnComplete(() -> log.info("Bulk ingest finished: {} inserted, {} rejected",
+                        totalInserted.get(), totalRejected.get()));
+    }
+
+    /**
+     * Get all movies with caching, walking the cached catalog index chunk by chunk
      */
     public Flux<MovieResponse> getAllMovies() {
         log.info("Fetching all movies");
 
-        return cacheService.getAllCachedMovies()
-                .switchIfEmpty(
-                        movieRepository.findAll()
-                                .map(this::toMovieResponse)
-                                .collectList()
-                                .flatMapMany(movies -> {
-                                    // Cache the results
-                                    return cacheService.cacheAllMovies(
-                                            Flux.fromIterable(movies),
-                                            ALL_MOVIES_CACHE_TTL
-                                    ).thenMany(Flux.fromIterable(movies));
-                                })
-                )
+        return getCatalogSnapshot()
+                .flatMapMany(snapshot -> Flux.range(0, chunkCount(snapshot.size(), CATALOG_STREAM_CHUNK))
+                        .concatMap(chunk -> cacheService.getCatalogPageIds(
+                                        snapshot, (long) chunk * CATALOG_STREAM_CHUNK, CATALOG_STREAM_CHUNK)
+                                .flatMapMany(ids -> resolveMovies(ids).flatMapIterable(movies -> movies))))
                 .doOnComplete(() -> log.info("Finished fetching all movies"))
                 .onErrorResume(e -> {
                     log.error("Failed to fetch movies", e);
@@ -83,24 +198,94 @@ public class MovieService {
     }
 
     /**
-     * Get movie by ID with caching
+     * Stream the catalog straight from a database cursor, in id order, for exporters.
+     * Rows are fetched a batch at a time only as the client consumes them and are
+     * emitted as soon as they are read; the cache is bypassed, so memory stays flat
+     * however large the table is. Resumable from the last id received.
+     */
+    @Transactional(readOnly = true)
+    public Flux<MovieResponse> exportMovies(long afterId) {
+        log.info("Exporting movies after ID {}", afterId);
+
+        int fetchSize = exportProperties.getFetchSize();
+        AtomicLong exported = new AtomicLong();
+        return movieBulkRepository.streamAfter(afterId, fetchSize)
+                .limitRate(fetchSize)
+                .map(this::toMovieResponse)
+                .doOnNext(movie -> exported.incrementAndGet())
+                .doOnComplete(() -> log.info("Exported {} movies", exported.get()))
+                .doOnCancel(() -> log.info("Export cancelled by client after {} movies", exported.get()));
+    }
+
+    /**
+     * Get one page of movies (1-based), served from the cached catalog index,
+     * optionally with each movie's latest reviews
+     */
+    public Mono<PagedResponse<List<MovieResponse>>> getMoviePage(int page, int size, boolean withReviews) {
+        log.info("Fetching movies page {} (size {})", page, size);
+
+        if (page < 1 || size < 1 || size > MAX_PAGE_SIZE) {
+            return Mono.error(new IllegalArgumentException(
+                    "Page must be at least 1 and size between 1 and " + MAX_PAGE_SIZE));
+        }
+
+        return getCatalogSnapshot()
+                .flatMap(snapshot -> cacheService.getCatalogPageIds(snapshot, (long) (page - 1) * size, size)
+                        .flatMap(this::resolveMovies)
+                        .flatMap(movies -> includeReviews(movies, withReviews))
+                        .map(movies -> pagedResponse(
+                                movies, snapshot.size(), page, size, chunkCount(snapshot.size(), size))))
+                .defaultIfEmpty(pagedResponse(List.of(), 0L, page, size, 0));
+    }
+
+    /**
+     * Get the page of movies after a cursor, in id or rating order.
+     * Pages are read with keyset queries, so their cost does not grow with
+     * the position in the table; each page's ids are cached by cursor and
+     * resolved through the movie cache.
+     */
+    public Mono<CursorPagedResponse<List<MovieResponse>>> getMoviesAfter(MovieSortOrder sort, String after, int limit,
+                                                                         boolean withReviews) {
+        log.info("Fetching {} movies after {} in {} order", limit, after, sort);
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return Mono.error(new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        MovieCursor cursor;
+        try {
+            cursor = after == null || after.isBlank() ? null : MovieCursor.parse(sort, after.trim());
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
+
+        String pageKey = MOVIE_PAGE_PREFIX + sort.name().toLowerCase(Locale.ROOT) + ":"
+                + (cursor == null ? "" : cursor.encode()) + ":" + limit;
+        return cacheService.getCachedMoviePage(pageKey)
+                .switchIfEmpty(Mono.defer(() -> requestCoalescer.coalesce(pageKey, () ->
+                        loadMoviePage(sort, cursor, limit)
+                                .flatMap(page -> cacheService.cacheMoviePage(pageKey, page, MOVIE_PAGE_TTL,
+                                                List.of(sort == MovieSortOrder.ID ? CacheTag.ID_ORDER : CacheTag.RATING_ORDER))
+                                        .thenReturn(page)))))
+                .flatMap(page -> resolveMovies(page.ids())
+                        .flatMap(movies -> includeReviews(movies, withReviews))
+                        .map(movies -> cursorResponse(movies, sort.name(), limit, page.nextCursor())));
+    }
+
+    /**
+     * Get movie by ID with caching.
+     * On a cache miss, ids the existence filter rules out are rejected without
+     * a database query, and ids the database does not have are remembered
+     * briefly as missing.
      */
     public Mono<MovieResponse> getMovieById(Long id) {
         log.info("Fetching movie with ID: {}", id);
 
-        return cacheService.getCachedMovie(id)
-                .switchIfEmpty(
-                        movieRepository.findById(id)
-                                .map(this::toMovieResponse)
-                                .flatMap(response ->
-                                        cacheService.cacheMovie(id, response, MOVIE_CACHE_TTL)
-                                                .thenReturn(response)
-                                                .onErrorResume(e -> {
-                                                    log.warn("Failed to cache movie {}", id, e);
-                                                    return Mono.just(response);
-                                                })
-                                )
-                )
+        Mono<MovieResponse> load = Mono.defer(() -> movieExistenceFilter.mightExist(id))
+                .flatMap(mightExist -> mightExist
+                        ? loadMovie(id).switchIfEmpty(Mono.defer(() -> movieExistenceFilter.markMissing(id)).then(Mono.<MovieResponse>empty()))
+                        : Mono.<MovieResponse>empty());
+        return cacheService.getCachedMovie(id, load)
+                .switchIfEmpty(load)
                 .switchIfEmpty(Mono.error(
                         new RuntimeException("Movie not found with ID: " + id)
                 ))
@@ -111,6 +296,19 @@ public class MovieService {
                 });
     }
 
+    /**
+     * Get several movies by ID in one go, in request order; unknown ids are skipped
+     */
+    public Mono<List<MovieResponse>> getMoviesByIds(List<Long> ids) {
+        List<Long> distinctIds = ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        log.info("Fetching {} movies by ID", distinctIds.size());
+
+        return resolveMovies(distinctIds);
+    }
+
     /**
      * Get movie with reviews
      */
@@ -122,14 +320,7 @@ public class MovieService {
                     MovieResponse response = toMovieResponse(movie);
 
                     return reviewRepository.findByMovieId(id)
-                            .map(review -> ReviewResponse.builder()
-                                    .id(review.getId())
-                                    .movieId(review.getMovieId())
-                                    .reviewerName(review.getReviewerName())
-                                    .rating(review.getRating())
-                                    .comment(review.getComment())
-                                    .createdAt(review.getCreatedAt())
-                                    .build())
+                            .map(this::toReviewResponse)
                             .collectList()
                             .map(reviews -> {
                                 response.setReviews(reviews);
@@ -142,9 +333,28 @@ public class MovieService {
     }
 
     /**
-     * Update movie
+     * Get the details page of a movie: the movie, its latest reviews, the
+     * review count and the average review score. On a miss the four parts
+     * are loaded concurrently, each under its own timeout; a review part
+     * that fails or times out is shown empty and the page is marked partial.
+     * Complete pages are cached under the movie's tag, so a change to the
+     * movie or its reviews drops them.
+     */
+    public Mono<MovieDetailsResponse> getMovieDetails(Long id) {
+        log.info("Fetching details of movie {}", id);
+
+        return cacheService.getCachedMovieDetails(id)
+                .switchIfEmpty(Mono.defer(() -> requestCoalescer.coalesce(MOVIE_DETAILS_PREFIX + id, () ->
+                        loadMovieDetails(id)
+                                .flatMap(details -> details.isPartial()
+                                        ? Mono.just(details)
+                                        : cacheService.cacheMovieDetails(details, detailsProperties.getTtl())
+                                                .thenReturn(details)))));
+    }
+
+    /**
+     * Update movie and write the new version through to the cache
      */
-    @Transactional
     public Mono<MovieResponse> updateMovie(Long id, MovieRequest request) {
         log.info("Updating movie with ID: {}", id);
 
@@ -152,21 +362,29 @@ public class MovieService {
                 .switchIfEmpty(Mono.error(
                         new RuntimeException("Movie not found with ID: " + id)
                 ))
-                .map(existing -> {
+                .flatMap(existing -> {
                     Movie updated = request.toEntity();
                     updated.setId(id);
-                    updated.setCreatedAt(existing.getCreatedAt());
-                    updated.setUpdatedAt(LocalDateTime.now());
-                    return updated;
+                    updated.setUpdatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+
+                    // A single statement that commits on its own, so the cache is
+                    // only written once the new row is visible to other readers
+                    return movieBulkRepository.update(updated)
+                            .switchIfEmpty(Mono.error(
+                                    new RuntimeException("Movie not found with ID: " + id)
+                            ))
+                            .map(this::toMovieResponse)
+                            .doOnNext(response -> titleSearchIndex.put(id, response.getTitle(), response.getRating()))
+                            .flatMap(response ->
+                                    // Versioned write-through: a reader still holding the old row cannot overwrite it
+                                    cacheService.writeThroughMovie(response, MOVIE_CACHE_TTL)
+                                            .then(movieSecondaryIndex.update(existing.getGenre(), response))
+                                            .then(cacheService.invalidateTags(CacheTag.updated(existing.getGenre(), response)))
+                                            .then(queryResultCache.invalidate(queryNamespaces(toMovieResponse(existing), response)))
+                                            .then(movieChangeFeed.publish(MovieChangeType.UPDATED, id, response))
+                                            .thenReturn(response)
+                            );
                 })
-                .flatMap(movieRepository::save)
-                .map(this::toMovieResponse)
-                .flatMap(response ->
-                        // Invalidate both single movie and all movies cache
-                        cacheService.invalidateMovie(id)
-                                .then(cacheService.invalidateAllMovies())
-                                .thenReturn(response)
-                )
                 .doOnSuccess(movie -> log.info("Updated movie: {}", movie.getTitle()))
                 .onErrorResume(e -> {
                     log.error("Failed to update movie {}", id, e);
@@ -175,24 +393,33 @@ public class MovieService {
     }
 
     /**
-     * Delete movie
+     * Delete movie.
+     * The rows are deleted in one transaction; caches, indexes and the change
+     * feed only learn about it after the commit.
      */
-    @Transactional
     public Mono<Void> deleteMovie(Long id) {
         log.info("Deleting movie with ID: {}", id);
 
-        return movieRepository.findById(id)
-                .switchIfEmpty(Mono.error(
-                        new RuntimeException("Movie not found with ID: " + id)
-                ))
+        return transactionalOperator.transactional(movieRepository.findById(id)
+                        .switchIfEmpty(Mono.error(
+                                new RuntimeException("Movie not found with ID: " + id)
+                        ))
+                        .flatMap(movie ->
+                                // Delete reviews first (due to foreign key)
+                                reviewRepository.deleteByMovieId(id)
+                                        .then(movieRepository.deleteById(id))
+                                        .thenReturn(movie)
+                        ))
                 .flatMap(movie ->
-                        // Delete reviews first (due to foreign key)
-                        reviewRepository.deleteByMovieId(id)
-                                .then(movieRepository.deleteById(id))
+                        movieSecondaryIndex.remove(id, movie.getGenre())
+                                .doOnSuccess(v -> titleSearchIndex.remove(id))
+                                .then(cacheService.invalidateTags(CacheTag.deleted(id, movie.getGenre())))
+                                .then(queryResultCache.invalidate(queryNamespaces(toMovieResponse(movie), null)))
                 )
-                .then(cacheService.invalidateMovie(id))
+                .then(cacheService.tombstoneMovie(id, MOVIE_TOMBSTONE_TTL))
+                .then(movieExistenceFilter.markDeleted(id))
                 .then(cacheService.invalidateAllMovies())
-                .then()
+                .then(movieChangeFeed.publish(MovieChangeType.DELETED, id, null))
                 .doOnSuccess(v -> log.info("Deleted movie with ID: {}", id))
                 .onErrorResume(e -> {
                     log.error("Failed to delete movie {}", id, e);
@@ -201,46 +428,413 @@ public class MovieService {
     }
 
     /**
-     * Search movies by title
+     * Search movies by title, ranked by match quality.
+     * Candidates come from the in-process trigram index and are resolved
+     * through the cache; until the index has loaded, the database is queried.
+     * The search is case-insensitive, so database results are cached by the
+     * trimmed, lower-cased term. Terms shorter than a trigram are rejected,
+     * since they match most of the catalog.
      */
-    public Flux<MovieResponse> searchByTitle(String title) {
+    public Flux<MovieResponse> searchByTitle(String title, boolean withReviews) {
         log.info("Searching movies by title: {}", title);
 
-        return movieRepository.findByTitleContainingIgnoreCase(title)
-                .map(this::toMovieResponse)
+        String term = title == null ? "" : title.trim().toLowerCase(Locale.ROOT);
+        if (term.length() < TitleSearchIndex.MIN_TERM_LENGTH) {
+            return Flux.error(new IllegalArgumentException(
+                    "Search term must be at least " + TitleSearchIndex.MIN_TERM_LENGTH + " characters"));
+        }
+        // Other nodes apply changes to their index asynchronously, so a result
+        // from the local index is never shared through the query cache
+        Flux<MovieResponse> results = titleSearchIndex.isReady()
+                ? resolveMovies(titleSearchIndex.search(term)).flatMapMany(Flux::fromIterable)
+                : cachedQuery(QueryResultCache.SEARCH, term, () -> movieRepository.findByTitleContainingIgnoreCase(term)
+                        .map(this::toMovieResponse)
+                        .collectList());
+        return results
+                .transform(movies -> includeReviews(movies, withReviews))
                 .doOnComplete(() -> log.info("Search completed for title: {}", title));
     }
 
     /**
-     * Get movies by genre
+     * Autocomplete titles: the best rated movies with a title word starting
+     * with the prefix, from the in-process lexicon; until it has loaded, the
+     * database is queried with an anchored pattern
+     */
+    public Mono<List<MovieSuggestion>> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            return Mono.error(new IllegalArgumentException("Limit must be between 1 and " + MAX_SUGGESTIONS));
+        }
+        if (prefix == null || prefix.isBlank()) {
+            return Mono.just(List.of());
+        }
+
+        return Mono.defer(() -> {
+            if (titleSearchIndex.isReady()) {
+                return Mono.just(titleSearchIndex.suggest(prefix, limit));
+            }
+            return movieRepository.findTopRatedByTitlePattern(escapeLike(prefix.trim()) + "%", limit)
+                    .map(movie -> new MovieSuggestion(movie.getId(), movie.getTitle(), movie.getRating()))
+                    .collectList();
+        });
+    }
+
+    /**
+     * Follow movie mutations from the change feed, after a feed position or from now
      */
-    public Flux<MovieResponse> getMoviesByGenre(String genre) {
+    public Flux<ServerSentEvent<MovieChangeEvent>> getChanges(String since) {
+        log.info("Following movie changes since {}", since);
+        return movieChangeFeed.changes(since);
+    }
+
+    /**
+     * Get movies by genre, from the Redis genre index when it is ready.
+     * Genres match case-sensitively, so only surrounding whitespace is normalized.
+     */
+    public Flux<MovieResponse> getMoviesByGenre(String genre, boolean withReviews) {
         log.info("Fetching movies by genre: {}", genre);
 
-        return movieRepository.findByGenre(genre)
-                .map(this::toMovieResponse)
+        String normalized = genre.trim();
+        return cachedQuery(QueryResultCache.genre(normalized), "", () -> movieSecondaryIndex.genreIds(normalized)
+                        .flatMap(ids -> resolveIndexedMovies(ids, normalized))
+                        .switchIfEmpty(Mono.defer(() -> movieRepository.findByGenre(normalized)
+                                .map(this::toMovieResponse)
+                                .collectList())))
+                .transform(movies -> includeReviews(movies, withReviews))
                 .doOnComplete(() -> log.info("Fetched movies for genre: {}", genre));
     }
 
     /**
-     * Get top rated movies
+     * Get top rated movies, from the Redis rating index when it is ready.
+     * The limit is rounded up to a bucket and the cached bucket cut down, so
+     * nearby limits share one cached result.
      */
-    public Flux<MovieResponse> getTopRatedMovies(int limit) {
+    public Flux<MovieResponse> getTopRatedMovies(int limit, boolean withReviews) {
         log.info("Fetching top {} rated movies", limit);
 
-        return movieRepository.findTopRatedMovies(limit)
-                .map(this::toMovieResponse)
+        if (limit <= 0) {
+            return Flux.empty();
+        }
+        int bucket = queryResultCache.limitBucket(limit);
+        return cachedQuery(QueryResultCache.TOP_RATED, String.valueOf(bucket), () -> movieSecondaryIndex.topRatedIds(bucket)
+                        .flatMap(ids -> resolveIndexedMovies(ids, null))
+                        .switchIfEmpty(Mono.defer(() -> movieRepository.findTopRatedMovies(bucket)
+                                .map(this::toMovieResponse)
+                                .collectList())))
+                .take(limit)
+                .transform(movies -> includeReviews(movies, withReviews))
                 .doOnComplete(() -> log.info("Fetched top rated movies"));
     }
 
     /**
      * Clear all caches
      */
-    public Mono<Long> clearAllCaches() {
+    public Flux<CacheClearProgress> clearAllCaches() {
         log.info("Clearing all movie caches");
         return cacheService.clearAllMovieCaches();
     }
 
+    /**
+     * Insert one ingest batch, cache the new movies and invalidate the catalog once
+     */
+    private Mono<Integer> insertAndCache(List<Movie> movies) {
+        if (movies.isEmpty()) {
+            return Mono.just(0);
+        }
+
+        return movieBulkRepository.insertAll(movies)
+                .map(this::toMovieResponse)
+                .collectList()
+                .elapsed()
+                .flatMap(timed -> {
+                    List<MovieResponse> inserted = timed.getT2();
+                    titleSearchIndex.addedAll(inserted.stream()
+                            .map(movie -> new MovieSuggestion(movie.getId(), movie.getTitle(), movie.getRating()))
+                            .toList());
+                    // Per-movie share of the batch insert, as an estimate of one reload
+                    Duration recomputeTime = Duration.ofMillis(timed.getT1() / Math.max(1, inserted.size()));
+                    return movieExistenceFilter.added(inserted.stream().map(MovieResponse::getId).toList())
+                            .then(cacheService.cacheMovies(inserted, MOVIE_CACHE_TTL, recomputeTime))
+                            .then(movieSecondaryIndex.addAll(inserted))
+                            .then(movieChangeFeed.publishAll(MovieChangeType.CREATED, inserted))
+                            .then(cacheService.invalidateAllMovies())
+                            .then(cacheService.invalidateTags(CacheTag.created(inserted)))
+                            .then(queryResultCache.invalidate(inserted.stream()
+                                    .flatMap(movie -> queryNamespaces(null, movie).stream())
+                                    .collect(Collectors.toSet())))
+                            .thenReturn(inserted.size());
+                });
+    }
+
+    private Mono<MovieDetailsResponse> loadMovieDetails(Long id) {
+        Duration timeout = detailsProperties.getPartTimeout();
+        AtomicBoolean partial = new AtomicBoolean();
+
+        Mono<MovieResponse> movie = getMovieById(id).timeout(timeout);
+        Mono<List<ReviewResponse>> reviews = optionalPart("reviews", id, partial, List.of(),
+                reviewRepository.findLatestByMovieId(id, detailsProperties.getReviewPageSize())
+                        .map(this::toReviewResponse)
+                        .collectList());
+        Mono<Long> count = optionalPart("review count", id, partial, 0L,
+                reviewRepository.countByMovieId(id));
+        Mono<Optional<Double>> average = optionalPart("average rating", id, partial, Optional.empty(),
+                reviewRepository.calculateAverageRating(id)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty()));
+
+        return Mono.zip(movie, reviews, count, average)
+                .map(parts -> MovieDetailsResponse.builder()
+                        .movie(parts.getT1())
+                        .reviews(parts.getT2())
+                        .reviewCount(parts.getT3())
+                        .averageReviewRating(parts.getT4().orElse(null))
+                        .partial(partial.get())
+                        .build());
+    }
+
+    /**
+     * Bound one review part of the details page by the part timeout, falling back on failure
+     */
+    private <T> Mono<T> optionalPart(String part, Long id, AtomicBoolean partial, T fallback, Mono<T> load) {
+        return load.timeout(detailsProperties.getPartTimeout())
+                .onErrorResume(e -> {
+                    log.warn("Leaving {} out of the details of movie {}", part, id, e);
+                    partial.set(true);
+                    return Mono.just(fallback);
+                });
+    }
+
+    /**
+     * Load a movie from the database and cache it with its measured load time.
+     * Concurrent misses and background refreshes share a single load and cache write.
+     */
+    private Mono<MovieResponse> loadMovie(Long id) {
+        return requestCoalescer.coalesce(CACHE_KEY_PREFIX + id, () ->
+                movieRepository.findById(id)
+                        .elapsed()
+                        .flatMap(timed -> {
+                            MovieResponse response = toMovieResponse(timed.getT2());
+                            return cacheService.cacheMovie(id, response, MOVIE_CACHE_TTL, Duration.ofMillis(timed.getT1()))
+                                    .thenReturn(response)
+                                    .onErrorResume(e -> {
+                                        log.warn("Failed to cache movie {}", id, e);
+                                        return Mono.just(response);
+                                    });
+                        })
+        );
+    }
+
+    /**
+     * Read one keyset page from the database, fetching one extra row to know
+     * whether another page follows. In rating order the rated movies come
+     * first and the unrated ones are only queried once those run out.
+     */
+    private Mono<CachedMoviePage> loadMoviePage(MovieSortOrder sort, MovieCursor cursor, int limit) {
+        int fetch = limit + 1;
+        Flux<MovieCursorProjection> rows;
+        if (sort == MovieSortOrder.ID) {
+            rows = movieRepository.findPageAfterId(cursor == null ? 0L : cursor.id(), fetch);
+        } else if (cursor == null) {
+            rows = movieRepository.findFirstPageByRating(fetch);
+        } else if (cursor.rating() == null) {
+            rows = movieRepository.findUnratedPageAfterId(cursor.id(), fetch);
+        } else {
+            rows = Flux.concat(
+                            movieRepository.findPageAfterRating(cursor.rating(), cursor.id(), fetch),
+                            Flux.defer(() -> movieRepository.findUnratedPageAfterId(0L, fetch)))
+                    .take(fetch);
+        }
+
+        return rows.collectList()
+                .map(found -> {
+                    List<MovieCursorProjection> page = found.size() > limit ? found.subList(0, limit) : found;
+                    MovieCursorProjection last = page.isEmpty() ? null : page.get(page.size() - 1);
+                    String next = found.size() > limit
+                            ? new MovieCursor(sort, last.getRating(), last.getId()).encode()
+                            : null;
+                    return new CachedMoviePage(page.stream().map(MovieCursorProjection::getId).toList(), next);
+                });
+    }
+
+    /**
+     * Read the catalog index, rebuilding it from movie ids on a miss
+     * or in the background when it is close to expiry
+     */
+    private Mono<CatalogSnapshot> getCatalogSnapshot() {
+        Mono<CatalogSnapshot> rebuild = rebuildCatalogSnapshot();
+        return cacheService.getCatalogSnapshot(rebuild)
+                .switchIfEmpty(rebuild);
+    }
+
+    /**
+     * Rebuild the catalog index from movie ids. Concurrent rebuilds share a single
+     * load and only the lease holder in the cluster queries the database.
+     */
+    private Mono<CatalogSnapshot> rebuildCatalogSnapshot() {
+        return requestCoalescer.coalesce(CATALOG_INDEX_KEY, () ->
+                cacheService.rebuildCatalogWithLease(
+                        cacheService.catalogRebuildStart()
+                                .flatMap(startedAt -> movieRepository.findAllIds()
+                                        .collectList()
+                                        .elapsed()
+                                        .flatMap(timed -> cacheService.cacheCatalogIndex(
+                                                timed.getT2(), CATALOG_INDEX_TTL,
+                                                Duration.ofMillis(timed.getT1()), startedAt)))
+                                .then(cacheService.getCatalogSnapshot())
+                )
+        );
+    }
+
+    /**
+     * Resolve movie ids to movies, keeping the order of the ids.
+     * Cached movies come from one MGET; misses are loaded with one findAllById
+     * and written back to the cache in one pipelined call.
+     */
+    private Mono<List<MovieResponse>> resolveMovies(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Mono.just(List.of());
+        }
+
+        return cacheService.getCachedMovies(ids)
+                .flatMap(cached -> {
+                    List<Long> missing = ids.stream()
+                            .filter(id -> !cached.containsKey(id))
+                            .toList();
+                    Mono<Map<Long, MovieResponse>> loaded = missing.isEmpty()
+                            ? Mono.just(Map.of())
+                            : movieRepository.findAllById(missing)
+                                    .map(this::toMovieResponse)
+                                    .collectList()
+                                    .elapsed()
+                                    .flatMap(timed -> cacheService.cacheMovies(
+                                                    timed.getT2(), MOVIE_CACHE_TTL, Duration.ofMillis(timed.getT1()))
+                                            .thenReturn(timed.getT2()))
+                                    .flatMapIterable(movies -> movies)
+                                    .collectMap(MovieResponse::getId);
+
+                    return loaded.map(fromDb -> ids.stream()
+                            .map(id -> cached.getOrDefault(id, fromDb.get(id)))
+                            .filter(Objects::nonNull)
+                            .toList());
+                });
+    }
+
+    /**
+     * Serve a query from the query result cache under its namespace's current
+     * generation. A miss runs the query once for concurrent callers and caches
+     * the ids it returned; if Redis is unavailable the query just runs.
+     */
+    private Flux<MovieResponse> cachedQuery(String namespace, String params, Supplier<Mono<List<MovieResponse>>> query) {
+        return queryResultCache.lookup(namespace, params)
+                .flatMap(result -> result.isHit()
+                        ? resolveMovies(result.ids())
+                        : requestCoalescer.coalesce(result.key(), () -> query.get()
+                                .flatMap(movies -> queryResultCache.store(result, movies.stream().map(MovieResponse::getId).toList())
+                                        .thenReturn(movies))))
+                .switchIfEmpty(Mono.defer(query))
+                .flatMapMany(Flux::fromIterable);
+    }
+
+    /**
+     * Attach each movie's latest reviews, capped per movie, loaded with one
+     * query per batch of movies however many reviews they have. The movies
+     * are copied rather than changed, since cached instances are shared.
+     */
+    private Mono<List<MovieResponse>> includeReviews(List<MovieResponse> movies, boolean withReviews) {
+        if (!withReviews || movies.isEmpty()) {
+            return Mono.just(movies);
+        }
+
+        List<Long> ids = movies.stream().map(MovieResponse::getId).toList();
+        return reviewRepository.findLatestByMovieIds(ids, reviewProperties.getPerMovieInLists())
+                .map(this::toReviewResponse)
+                .collect(Collectors.groupingBy(ReviewResponse::getMovieId))
+                .map(reviewsByMovie -> movies.stream()
+                        .map(movie -> movie.toBuilder()
+                                .reviews(reviewsByMovie.getOrDefault(movie.getId(), List.of()))
+                                .build())
+                        .toList());
+    }
+
+    private Flux<MovieResponse> includeReviews(Flux<MovieResponse> movies, boolean withReviews) {
+        if (!withReviews) {
+            return movies;
+        }
+        return movies.buffer(reviewProperties.getBatchSize())
+                .concatMap(batch -> includeReviews(batch, true))
+                .flatMapIterable(batch -> batch);
+    }
+
+    /**
+     * Query namespaces a change of a movie can affect, where null stands for
+     * the movie not existing before a create or after a delete: search follows
+     * titles, top-rated follows ratings and each genre its members
+     */
+    private static Set<String> queryNamespaces(MovieResponse before, MovieResponse after) {
+        boolean createdOrDeleted = before == null || after == null;
+        Set<String> namespaces = new LinkedHashSet<>();
+        if (createdOrDeleted || !Objects.equals(before.getTitle(), after.getTitle())) {
+            namespaces.add(QueryResultCache.SEARCH);
+        }
+        if (createdOrDeleted || !Objects.equals(before.getRating(), after.getRating())) {
+            namespaces.add(QueryResultCache.TOP_RATED);
+        }
+        if (createdOrDeleted || !Objects.equals(before.getGenre(), after.getGenre())) {
+            for (MovieResponse movie : new MovieResponse[]{before, after}) {
+                if (movie != null && movie.getGenre() != null) {
+                    namespaces.add(QueryResultCache.genre(movie.getGenre()));
+                }
+            }
+        }
+        return namespaces;
+    }
+
+    /**
+     * Resolve ids read from a secondary index, pruning any that no longer exist
+     * and, for a genre, any whose movie is now in another genre
+     */
+    private Mono<List<MovieResponse>> resolveIndexedMovies(List<Long> ids, String genre) {
+        return resolveMovies(ids)
+                .flatMap(movies -> {
+                    List<Long> moved = genre == null ? List.of() : movies.stream()
+                            .filter(movie -> !genre.equals(movie.getGenre()))
+                            .map(MovieResponse::getId)
+                            .toList();
+                    if (movies.size() == ids.size() && moved.isEmpty()) {
+                        return Mono.just(movies);
+                    }
+                    Set<Long> found = movies.stream().map(MovieResponse::getId).collect(Collectors.toSet());
+                    List<Long> gone = ids.stream().filter(id -> !found.contains(id)).toList();
+                    List<MovieResponse> matching = moved.isEmpty() ? movies : movies.stream()
+                            .filter(movie -> genre.equals(movie.getGenre()))
+                            .toList();
+                    return movieSecondaryIndex.prune(gone, genre)
+                            .then(movieSecondaryIndex.pruneGenre(moved, genre))
+                            .thenReturn(matching);
+                });
+    }
+
+    /**
+     * Escape LIKE wildcards so user input only matches literally
+     */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static int chunkCount(long total, int chunkSize) {
+        return (int) ((total + chunkSize - 1) / chunkSize);
+    }
+
+    private ReviewResponse toReviewResponse(Review review) {
+        return ReviewResponse.builder()
+                .id(review.getId())
+                .movieId(review.getMovieId())
+                .reviewerName(review.getReviewerName())
+                .rating(review.getRating())
+                .comment(review.getComment())
+                .createdAt(review.getCreatedAt())
+                .build();
+    }
+
     private MovieResponse toMovieResponse(Movie movie) {
         return MovieResponse.builder()
                 .id(movie.getId())
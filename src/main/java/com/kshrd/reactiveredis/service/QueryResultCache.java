@@ -0,0 +1,109 @@
+package com.kshrd.reactiveredis.service;
+
+import com.kshrd.reactiveredis.common.property.MovieQueryCacheProperties;
+import com.kshrd.reactiveredis.model.dto.CachedQueryResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.QUERY_GENERATION_PREFIX;
+import static com.kshrd.reactiveredis.common.constant.MovieConstant.QUERY_RESULT_PREFIX;
+
+/**
+ * Cache of query results (the ordered movie ids a query returned), grouped
+ * into namespaces that are invalidated as a whole.
+ * <p>
+ * Every namespace has a generation counter in Redis and result keys embed
+ * the generation current when they were read, so one INCR moves all readers
+ * of a namespace to fresh keys without finding or deleting the old ones;
+ * results of superseded generations are simply left to expire. A result
+ * loaded while the generation moves on is written under the generation it
+ * was read with, where no reader will look for it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QueryResultCache {
+
+    public static final String SEARCH = "search";
+
+    public static final String TOP_RATED = "top-rated";
+
+    private final ReactiveRedisTemplate<String, String> stringRedisTemplate;
+
+    private final MovieQueryCacheProperties properties;
+
+    /**
+     * Namespace of the queries for one genre
+     */
+    public static String genre(String genre) {
+        return "genre:" + genre;
+    }
+
+    /**
+     * Look up a result by namespace and normalized parameters; empty if Redis is unavailable
+     */
+    public Mono<CachedQueryResult> lookup(String namespace, String params) {
+        // Two commands rather than a script: the result key depends on the
+        // generation, so it could not be declared up front, which Cluster requires
+        return stringRedisTemplate.opsForValue().get(QUERY_GENERATION_PREFIX + namespace)
+                .defaultIfEmpty("0")
+                .map(generation -> QUERY_RESULT_PREFIX + namespace + ":" + generation + ":" + params)
+                .flatMap(key -> stringRedisTemplate.opsForValue().get(key)
+                        .map(value -> new CachedQueryResult(key, parseIds(value)))
+                        .defaultIfEmpty(new CachedQueryResult(key, null)))
+                .onErrorResume(e -> {
+                    log.error("Query cache error for {} {}", namespace, params, e);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Cache the ids a query returned under the key of a missed lookup
+     */
+    public Mono<Boolean> store(CachedQueryResult miss, List<Long> ids) {
+        String value = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return stringRedisTemplate.opsForValue().set(miss.key(), value, properties.getTtl())
+                .onErrorResume(e -> {
+                    log.warn("Failed to cache query result {}", miss.key(), e);
+                    return Mono.just(false);
+                });
+    }
+
+    /**
+     * Move each namespace to a new generation; a failure is logged and leaves
+     * the current results to their TTL
+     */
+    public Mono<Void> invalidate(Collection<String> namespaces) {
+        return Flux.fromIterable(namespaces)
+                .flatMap(namespace -> stringRedisTemplate.opsForValue().increment(QUERY_GENERATION_PREFIX + namespace))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Failed to invalidate query namespaces {}", namespaces, e);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * The smallest configured bucket holding the limit, or the limit itself above the largest
+     */
+    public int limitBucket(int limit) {
+        return properties.getLimitBuckets().stream()
+                .sorted()
+                .filter(bucket -> bucket >= limit)
+                .findFirst()
+                .orElse(limit);
+    }
+
+    private static List<Long> parseIds(String value) {
+        return value.isEmpty() ? List.of() : Arrays.stream(value.split(",")).map(Long::valueOf).toList();
+    }
+}
@@ -0,0 +1,65 @@
+package com.kshrd.reactiveredis.service;
+
+import com.kshrd.reactiveredis.common.property.MovieCacheProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Probabilistic early expiration (XFetch) and TTL jitter for cache entries.
+ * A reader refreshes early with a probability that grows as the entry nears
+ * expiry, scaled by how long the value takes to recompute, so hot entries are
+ * reloaded in the background before they expire instead of all at once after.
+ */
+@Component
+@RequiredArgsConstructor
+public class RefreshAheadPolicy {
+
+    private final MovieCacheProperties properties;
+
+    /**
+     * Decide whether this read should trigger a background refresh
+     */
+    public boolean shouldRefresh(long expiresAtMillis, long recomputeMillis) {
+        if (expiresAtMillis <= 0 || recomputeMillis <= 0) {
+            return false;
+        }
+
+        // 1 - nextDouble() is in (0, 1], so the logarithm is finite and non-positive
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        double earlyBy = recomputeMillis * properties.getRefreshAhead().getBeta() * -Math.log(random);
+        return System.currentTimeMillis() + earlyBy >= expiresAtMillis;
+    }
+
+    /**
+     * Decide whether a Redis entry with the given remaining TTL should be refreshed early
+     */
+    public boolean shouldRefresh(Duration remainingTtl, long recomputeMillis) {
+        if (remainingTtl == null || remainingTtl.isNegative() || remainingTtl.isZero()) {
+            return false;
+        }
+        return shouldRefresh(System.currentTimeMillis() + remainingTtl.toMillis(), recomputeMillis);
+    }
+
+    /**
+     * Spread a TTL by +/- the configured jitter so keys written together do not expire together
+     */
+    public Duration jitter(Duration ttl) {
+        double jitter = properties.getRefreshAhead().getTtlJitter();
+        if (jitter <= 0) {
+            return ttl;
+        }
+
+        double factor = 1.0 + ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+        return Duration.ofMillis(Math.max(1, Math.round(ttl.toMillis() * factor)));
+    }
+
+    /**
+     * Recompute time assumed for entries written without a measured load
+     */
+    public Duration defaultRecomputeTime() {
+        return properties.getRefreshAhead().getDefaultRecomputeTime();
+    }
+}
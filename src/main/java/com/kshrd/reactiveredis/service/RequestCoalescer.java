@@ -0,0 +1,69 @@
+package com.kshrd.reactiveredis.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of cache-miss loads. Concurrent callers for the
+ * same cache key share one in-flight load instead of each hitting the database.
+ */
+@Component
+@Slf4j
+public class RequestCoalescer {
+
+    private static final String METRIC_NAME = "movie.cache.coalesce.requests";
+
+    private final Map<String, Mono<?>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter leaders;
+
+    private final Counter deduplicated;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.leaders = meterRegistry.counter(METRIC_NAME, "role", "leader");
+        this.deduplicated = meterRegistry.counter(METRIC_NAME, "role", "deduplicated");
+        Gauge.builder("movie.cache.coalesce.in-flight", inFlight, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run the loader once for all concurrent callers of the same key
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> coalesce(String key, Supplier<Mono<T>> loader) {
+        return Mono.defer(() -> {
+            AtomicBoolean leader = new AtomicBoolean();
+            Mono<T> shared = (Mono<T>) inFlight.computeIfAbsent(key, k -> {
+                leader.set(true);
+                return share(k, loader);
+            });
+
+            if (leader.get()) {
+                leaders.increment();
+            } else {
+                deduplicated.increment();
+                log.debug("Joined in-flight load for {}", key);
+            }
+            return shared;
+        });
+    }
+
+    private <T> Mono<T> share(String key, Supplier<Mono<T>> loader) {
+        AtomicReference<Mono<T>> self = new AtomicReference<>();
+        Mono<T> shared = Mono.defer(loader)
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .cache();
+        self.set(shared);
+        return shared;
+    }
+}
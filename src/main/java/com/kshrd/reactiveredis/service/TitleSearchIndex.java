@@ -0,0 +1,450 @@
+package com.kshrd.reactiveredis.service;
+
+import com.kshrd.reactiveredis.common.property.MovieSearchProperties;
+import com.kshrd.reactiveredis.model.entity.Movie;
+import com.kshrd.reactiveredis.model.response.MovieSuggestion;
+import com.kshrd.reactiveredis.repository.MovieRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-process trigram inverted index over movie titles, plus a sorted
+ * lexicon of title words for prefix autocomplete.
+ * <p>
+ * Each title is split into its 3-character substrings; a search intersects
+ * the id sets of the term's trigrams and then checks the few candidates with a
+ * real substring match, so results equal a case-insensitive "contains" while
+ * the cost depends on the matches rather than on the table size. Terms shorter
+ * than a trigram match nothing, as they would have to scan every title.
+ * <p>
+ * Suggestions come from the best rated top-K kept for every prefix of up
+ * to a few characters of each title word, so a keystroke costs a map lookup
+ * however many titles share the prefix. The buckets are updated with the
+ * index: an added movie is merged into the buckets of its prefixes, and a
+ * removed one only forces a bucket to be refilled when it was in it. Longer
+ * prefixes, whose ranges are narrow, walk the lexicographic range of the
+ * prefix in a skip list keyed by every word-start suffix of each title.
+ * <p>
+ * The index is loaded at startup and kept current from local mutations and
+ * from other nodes' change messages; a periodic full reload bounds any drift
+ * from messages missed while disconnected.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TitleSearchIndex {
+
+    private static final int GRAM = 3;
+
+    /**
+     * Shortest term a search accepts: one trigram
+     */
+    public static final int MIN_TERM_LENGTH = GRAM;
+
+    /**
+     * Prefixes up to this length are answered from precomputed buckets
+     */
+    private static final int BUCKETED_PREFIX_LENGTH = 8;
+
+    /**
+     * Suggestions kept per prefix bucket; larger limits walk the range
+     */
+    private static final int SUGGESTIONS_PER_PREFIX = 20;
+
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    /**
+     * Best rated first; unrated last; then shorter title, then id
+     */
+    private static final Comparator<MovieSuggestion> BEST_FIRST = Comparator
+            .comparing(MovieSuggestion::getRating, Comparator.nullsLast(Comparator.<BigDecimal>reverseOrder()))
+            .thenComparingInt(suggestion -> suggestion.getTitle().length())
+            .thenComparing(MovieSuggestion::getId);
+
+    private final MovieRepository movieRepository;
+
+    private final CacheInvalidationBroadcaster invalidationBroadcaster;
+
+    private final MovieSearchProperties properties;
+
+    private volatile Index index = new Index();
+
+    private volatile boolean ready;
+
+    /**
+     * Changes made while a full reload is running, replayed onto the reloaded index
+     */
+    private Map<Long, Optional<MovieSuggestion>> changesDuringReload;
+
+    private Disposable subscription;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscription = Flux.merge(
+                        Flux.interval(Duration.ZERO, properties.getReloadInterval())
+                                .onBackpressureDrop()
+                                .concatMap(tick -> reload(), 1),
+                        invalidationBroadcaster.remoteMovieChanges()
+                                .concatMap(this::refresh))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Whether the index has been loaded and can answer searches
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Index a movie created on this node and let the other nodes pick it up
+     */
+    public void added(Long movieId, String title, BigDecimal rating) {
+        put(movieId, title, rating);
+        invalidationBroadcaster.publishMovie(movieId).subscribe();
+    }
+
+    /**
+     * Index a batch of movies created on this node and let the other nodes
+     * pick them up from one message and one query
+     */
+    public void addedAll(Collection<MovieSuggestion> entries) {
+        entries.forEach(entry -> put(entry.getId(), entry.getTitle(), entry.getRating()));
+        invalidationBroadcaster.publishMovies(entries.stream().map(MovieSuggestion::getId).toList()).subscribe();
+    }
+
+    /**
+     * Index or re-index a movie title
+     */
+    public synchronized void put(Long movieId, String title, BigDecimal rating) {
+        MovieSuggestion entry = new MovieSuggestion(movieId, title, rating);
+        if (changesDuringReload != null) {
+            changesDuringReload.put(movieId, Optional.of(entry));
+        }
+        index.put(entry);
+    }
+
+    /**
+     * Drop a movie from the index
+     */
+    public synchronized void remove(Long movieId) {
+        if (changesDuringReload != null) {
+            changesDuringReload.put(movieId, Optional.empty());
+        }
+        index.remove(movieId);
+    }
+
+    /**
+     * Ids of the movies whose title contains the term, best matches first:
+     * exact title, then title prefix, then word prefix, then anywhere;
+     * shorter titles rank higher within each group
+     */
+    public List<Long> search(String term) {
+        Index current = index;
+        String needle = normalize(term);
+        if (needle.length() < MIN_TERM_LENGTH) {
+            return List.of();
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (Long movieId : current.candidates(needle)) {
+            String title = current.titles.get(movieId);
+            if (title != null && title.contains(needle)) {
+                matches.add(new Match(movieId, rank(title, needle), title.length()));
+            }
+        }
+
+        matches.sort(Comparator.comparingInt(Match::rank)
+                .thenComparingInt(Match::length)
+                .thenComparing(Match::movieId));
+        return matches.stream().map(Match::movieId).toList();
+    }
+
+    /**
+     * Best rated movies with a title word starting with the prefix
+     */
+    public List<MovieSuggestion> suggest(String prefix, int limit) {
+        Index current = index;
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        if (normalized.length() > BUCKETED_PREFIX_LENGTH || limit > SUGGESTIONS_PER_PREFIX) {
+            return current.walk(normalized, limit);
+        }
+        List<MovieSuggestion> top = current.topByPrefix.getOrDefault(normalized, List.of());
+        return top.size() <= limit ? top : top.subList(0, limit);
+    }
+
+    private Mono<Void> reload() {
+        synchronized (this) {
+            changesDuringReload = new LinkedHashMap<>();
+        }
+
+        return movieRepository.findAllTitles()
+                .reduce(new Index(), (next, row) -> {
+                    next.put(new MovieSuggestion(row.getId(), row.getTitle(), row.getRating()));
+                    return next;
+                })
+                .doOnNext(next -> {
+                    synchronized (this) {
+                        changesDuringReload.forEach((movieId, entry) -> {
+                            if (entry.isPresent()) {
+                                next.put(entry.get());
+                            } else {
+                                next.remove(movieId);
+                            }
+                        });
+                        changesDuringReload = null;
+                        index = next;
+                        ready = true;
+                    }
+                    log.info("Loaded title search index with {} movies", next.titles.size());
+                })
+                .doOnError(e -> {
+                    synchronized (this) {
+                        changesDuringReload = null;
+                    }
+                })
+                .onErrorResume(e -> {
+                    log.error("Failed to load title search index", e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<Void> refresh(List<Long> movieIds) {
+        return movieRepository.findAllById(movieIds)
+                .collectMap(Movie::getId)
+                .doOnNext(found -> movieIds.forEach(movieId -> {
+                    Movie movie = found.get(movieId);
+                    if (movie != null) {
+                        put(movieId, movie.getTitle(), movie.getRating());
+                    } else {
+                        remove(movieId);
+                    }
+                }))
+                .onErrorResume(e -> {
+                    log.warn("Failed to refresh titles of movies {}", movieIds, e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private static int rank(String title, String needle) {
+        if (title.equals(needle)) {
+            return 0;
+        }
+        if (title.startsWith(needle)) {
+            return 1;
+        }
+        for (int at = title.indexOf(needle); at > 0; at = title.indexOf(needle, at + 1)) {
+            if (!Character.isLetterOrDigit(title.charAt(at - 1))) {
+                return 2;
+            }
+        }
+        return 3;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> trigrams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    /**
+     * Suffixes of a normalized title starting at each word
+     */
+    private static Set<String> wordStarts(String value) {
+        Set<String> starts = new HashSet<>();
+        for (int i = 0; i < value.length(); i++) {
+            boolean wordStart = i == 0 || !Character.isLetterOrDigit(value.charAt(i - 1));
+            if (wordStart && Character.isLetterOrDigit(value.charAt(i))) {
+                starts.add(value.substring(i));
+            }
+        }
+        return starts;
+    }
+
+    /**
+     * Prefixes, up to the bucketed length, of the word-start suffixes of a normalized title
+     */
+    private static Set<String> prefixes(String value) {
+        Set<String> prefixes = new HashSet<>();
+        for (String start : wordStarts(value)) {
+            for (int length = 1; length <= Math.min(start.length(), BUCKETED_PREFIX_LENGTH); length++) {
+                prefixes.add(start.substring(0, length));
+            }
+        }
+        return prefixes;
+    }
+
+    private record Match(Long movieId, int rank, int length) {
+    }
+
+    /**
+     * Normalized titles by id, the posting list of ids for each trigram,
+     * and the word-start lexicon and per-prefix top suggestions. Changes are
+     * made by one thread at a time; each bucket is replaced by a new
+     * immutable list, so readers never see one half updated.
+     */
+    private static final class Index {
+
+        private final Map<Long, String> titles = new ConcurrentHashMap<>();
+
+        private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+        private final NavigableMap<String, MovieSuggestion> lexicon = new ConcurrentSkipListMap<>();
+
+        private final Map<String, List<MovieSuggestion>> topByPrefix = new ConcurrentHashMap<>();
+
+        void put(MovieSuggestion entry) {
+            remove(entry.getId());
+            if (entry.getTitle() == null) {
+                return;
+            }
+
+            String normalized = normalize(entry.getTitle());
+            titles.put(entry.getId(), normalized);
+            for (String gram : trigrams(normalized)) {
+                postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(entry.getId());
+            }
+            for (String start : wordStarts(normalized)) {
+                lexicon.put(start + KEY_SEPARATOR + entry.getId(), entry);
+            }
+            for (String prefix : prefixes(normalized)) {
+                topByPrefix.compute(prefix, (p, top) -> merge(top, entry));
+            }
+        }
+
+        void remove(Long movieId) {
+            String previous = titles.remove(movieId);
+            if (previous == null) {
+                return;
+            }
+
+            for (String gram : trigrams(previous)) {
+                postings.computeIfPresent(gram, (g, ids) -> {
+                    ids.remove(movieId);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+            for (String start : wordStarts(previous)) {
+                lexicon.remove(start + KEY_SEPARATOR + movieId);
+            }
+            for (String prefix : prefixes(previous)) {
+                topByPrefix.computeIfPresent(prefix, (p, top) -> {
+                    if (top.stream().noneMatch(suggestion -> suggestion.getId().equals(movieId))) {
+                        return top;
+                    }
+                    List<MovieSuggestion> refilled = walk(p, SUGGESTIONS_PER_PREFIX);
+                    return refilled.isEmpty() ? null : refilled;
+                });
+            }
+        }
+
+        /**
+         * A bucket with the entry merged in, still holding only the best rated
+         */
+        private static List<MovieSuggestion> merge(List<MovieSuggestion> top, MovieSuggestion entry) {
+            if (top == null) {
+                return List.of(entry);
+            }
+            if (top.size() >= SUGGESTIONS_PER_PREFIX
+                    && BEST_FIRST.compare(entry, top.get(top.size() - 1)) > 0) {
+                return top;
+            }
+
+            List<MovieSuggestion> merged = new ArrayList<>(top.size() + 1);
+            merged.addAll(top);
+            merged.add(entry);
+            merged.sort(BEST_FIRST);
+            return List.copyOf(merged.subList(0, Math.min(merged.size(), SUGGESTIONS_PER_PREFIX)));
+        }
+
+        /**
+         * Walk the prefix range keeping the best rated suggestions in a bounded heap
+         */
+        List<MovieSuggestion> walk(String prefix, int limit) {
+            PriorityQueue<MovieSuggestion> best = new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+            Set<Long> seen = new HashSet<>();
+            for (MovieSuggestion candidate : lexicon.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                if (!seen.add(candidate.getId())) {
+                    continue;
+                }
+                best.offer(candidate);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+
+            List<MovieSuggestion> result = new ArrayList<>(best);
+            result.sort(BEST_FIRST);
+            return List.copyOf(result);
+        }
+
+        /**
+         * Ids present in the posting list of every trigram of the needle
+         */
+        Collection<Long> candidates(String needle) {
+            List<Set<Long>> lists = new ArrayList<>();
+            for (String gram : trigrams(needle)) {
+                Set<Long> ids = postings.get(gram);
+                if (ids == null) {
+                    return List.of();
+                }
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+
+            List<Long> result = new ArrayList<>();
+            for (Long movieId : lists.get(0)) {
+                boolean inAll = true;
+                for (int i = 1; i < lists.size() && inAll; i++) {
+                    inAll = lists.get(i).contains(movieId);
+                }
+                if (inAll) {
+                    result.add(movieId);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.kshrd.reactiveredis.utils;
 
 import com.kshrd.reactiveredis.base.APIResponse;
+import com.kshrd.reactiveredis.base.CursorInfo;
+import com.kshrd.reactiveredis.base.CursorPagedResponse;
 import com.kshrd.reactiveredis.base.PagedResponse;
 import com.kshrd.reactiveredis.base.PaginationInfo;
 import org.springframework.http.HttpStatus;
@@ -18,4 +20,9 @@ public class ResponseUtil {
         PaginationInfo paginationInfo = new PaginationInfo(totalCount, page, size, totalPages);
         return new PagedResponse<>(content, paginationInfo);
     }
+
+    public static <T> CursorPagedResponse<T> cursorResponse(T content, String sort, Integer limit, String nextCursor) {
+        CursorInfo cursorInfo = new CursorInfo(sort, limit, nextCursor, nextCursor != null);
+        return new CursorPagedResponse<>(content, cursorInfo);
+    }
 }
@@ -26,7 +26,9 @@ CREATE TABLE IF NOT EXISTS reviews (
 -- Create indexes
 CREATE INDEX idx_movies_title ON movies(title);
 CREATE INDEX idx_movies_genre ON movies(genre);
+CREATE INDEX idx_movies_rating_id ON movies(rating DESC NULLS LAST, id);
 CREATE INDEX idx_reviews_movie_id ON reviews(movie_id);
+CREATE INDEX idx_reviews_movie_id_created_at ON reviews(movie_id, created_at DESC, id DESC);
 
 -- Insert sample data
 INSERT INTO movies
@@ -0,0 +1,256 @@
+package com.kshrd.reactiveredis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kshrd.reactiveredis.common.codec.CachedMovieRedisSerializer;
+import com.kshrd.reactiveredis.common.enumeration.CacheCodecFormat;
+import com.kshrd.reactiveredis.model.dto.CachedMovie;
+import com.kshrd.reactiveredis.model.response.MovieResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedMovieRedisSerializerTest {
+
+    // Presence bits of the binary movie body
+    private static final int TITLE_FIELD = 1 << 1;
+    private static final int RATING_FIELD = 1 << 6;
+    private static final int REVIEWS_FIELD = 1 << 8;
+
+    private ObjectMapper objectMapper;
+
+    private CachedMovie entry;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        MovieResponse movie = MovieResponse.builder()
+                .id(42L)
+                .title("The Matrix")
+                .description("A computer hacker learns about the true nature of reality")
+                .releaseYear(1999)
+                .genre("Sci-Fi")
+                .director("The Wachowskis")
+                .rating(new BigDecimal("8.7"))
+                .durationMinutes(136)
+                .createdAt(LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123_000_000))
+                .build();
+
+        entry = CachedMovie.builder()
+                .movie(movie)
+                .version(1_704_110_400_123_000L)
+                .expiresAt(1_700_000_000_000L)
+                .recomputeMillis(12L)
+                .build();
+    }
+
+    @Test
+    void binary_ShouldRoundTripAndBeSmallerThanJson() throws Exception {
+        CachedMovieRedisSerializer serializer =
+                new CachedMovieRedisSerializer(objectMapper, CacheCodecFormat.BINARY, 512, 1_048_576);
+
+        byte[] bytes = serializer.serialize(entry);
+
+        assertEquals(CachedMovieRedisSerializer.MAGIC, bytes[0]);
+        // The cache's compare-and-set script reads the version at this fixed offset
+        assertEquals(entry.getVersion(), ByteBuffer.wrap(bytes, 3, 8).getLong());
+        assertTrue(bytes.length < objectMapper.writeValueAsBytes(entry).length);
+        assertEquals(entry, serializer.deserialize(bytes));
+    }
+
+    @Test
+    void binary_WhenBodyExceedsThreshold_ShouldCompressAndRoundTrip() {
+        entry.getMovie().setDescription("reality ".repeat(200));
+        CachedMovieRedisSerializer serializer =
+                new CachedMovieRedisSerializer(objectMapper, CacheCodecFormat.BINARY, 64, 1_048_576);
+
+        byte[] bytes = serializer.serialize(entry);
+
+        assertTrue(bytes.length < 400);
+        assertEquals(entry, serializer.deserialize(bytes));
+    }
+
+    @Test
+    void tombstone_ShouldBeWrittenAsBinaryHeaderEvenInJsonFormat() {
+        CachedMovieRedisSerializer serializer =
+                new CachedMovieRedisSerializer(objectMapper, CacheCodecFormat.JSON, 512, 1_048_576);
+        CachedMovie tombstone = CachedMovie.builder()
+                .version(Long.MAX_VALUE)
+                .expiresAt(1_700_000_000_000L)
+                .build();
+
+        byte[] bytes = serializer.serialize(tombstone);
+
+        assertEquals(CachedMovieRedisSerializer.MAGIC, bytes[0]);
+        assertEquals(Long.MAX_VALUE, ByteBuffer.wrap(bytes, 3, 8).getLong());
+        assertEquals(tombstone, serializer.deserialize(bytes));
+    }
+
+    @Test
+    void json_ShouldRoundTripBehindVersionedHeader() {
+        CachedMovieRedisSerializer serializer =
+                new CachedMovieRedisSerializer(objectMapper, CacheCodecFormat.JSON, 512, 1_048_576);
+
+        byte[] bytes = serializer.serialize(entry);
+
+        assertEquals(CachedMovieRedisSerializer.MAGIC, bytes[0]);
+        assertEquals(entry.getVersion(), ByteBuffer.wrap(bytes, 3, 8).getLong());
+        assertEquals(entry, serializer.deserialize(bytes));
+    }
+
+    @Test
+    void compareAndSet_ShouldNotReplaceNewerEntryInAnyFormat() {
+        for (CacheCodecFormat format : CacheCodecFormat.values()) {
+            CachedMovieRedisSerializer serializer =
+                    new CachedMovieRedisSerializer(objectMapper, format, 512, 1_048_576);
+            byte[] newer = serializer.serialize(versioned(entry.getVersion() + 1));
+            byte[] tombstone = serializer.serialize(CachedMovie.builder().version(Long.MAX_VALUE).build());
+
+            assertFalse(setIfNewerWouldWrite(newer, entry.getVersion()), format.name());
+            assertFalse(setIfNewerWouldWrite(tombstone, entry.getVersion() + 1), format.name());
+            assertTrue(setIfNewerWouldWrite(serializer.serialize(entry), entry.getVersion() + 1), format.name());
+        }
+    }
+
+    @Test
+    void deserialize_WhenTruncated_ShouldThrowSerializationException() {
+        CachedMovieRedisSerializer serializer =
+                new CachedMovieRedisSerializer(objectMapper, CacheCodecFormat.BINARY, 512, 1_048_576);
+        byte[] bytes = serializer.serialize(entry);
+
+        for (int length = 4; length < bytes.length; length += 7) {
+            byte[] truncated = Arrays.copyOf(bytes, length);
+            assertThrows(SerializationException.class, () -> serializer.deserialize(truncated));
+        }
+    }
+
+    @Test
+    void deserialize_WhenDecimalTruncated_ShouldThrowSerializationException() {
+        CachedMovieRedisSerializer serializer =
+                new CachedMovieRedisSerializer(objectMapper, CacheCodecFormat.BINARY, 512, 1_048_576);
+
+        // rating present: scale 1, four unscaled bytes promised, two present
+        byte[] bytes = entryBytes(0, body(RATING_FIELD, 1, 4), new byte[]{1, 2});
+
+        assertThrows(SerializationException.class, () -> serializer.deserialize(bytes));
+    }
+
+    @Test
+    void deserialize_WhenDecimalLengthOversized_ShouldThrowSerializationException() {
+        CachedMovieRedisSerializer serializer =
+                new CachedMovieRedisSerializer(objectMapper, CacheCodecFormat.BINARY, 512, 1_048_576);
+
+        byte[] huge = entryBytes(0, body(RATING_FIELD, 1, Integer.MAX_VALUE), new byte[]{1});
+        // Would wrap to a length of 1 if cast to int before the check
+        byte[] wrapping = entryBytes(0, body(RATING_FIELD, 1, (1L << 32) + 1), new byte[]{1});
+
+        assertThrows(SerializationException.class, () -> serializer.deserialize(huge));
+        assertThrows(SerializationException.class, () -> serializer.deserialize(wrapping));
+    }
+
+    @Test
+    void deserialize_WhenReviewCountOversized_ShouldThrowSerializationException() {
+        CachedMovieRedisSerializer serializer =
+                new CachedMovieRedisSerializer(objectMapper, CacheCodecFormat.BINARY, 512, 1_048_576);
+
+        byte[] bytes = entryBytes(0, body(REVIEWS_FIELD, Integer.MAX_VALUE), new byte[0]);
+
+        assertThrows(SerializationException.class, () -> serializer.deserialize(bytes));
+    }
+
+    @Test
+    void deserialize_WhenStringLengthOversized_ShouldThrowSerializationException() {
+        CachedMovieRedisSerializer serializer =
+                new CachedMovieRedisSerializer(objectMapper, CacheCodecFormat.BINARY, 512, 1_048_576);
+
+        byte[] bytes = entryBytes(0, body(TITLE_FIELD, Integer.MAX_VALUE), new byte[]{'a'});
+
+        assertThrows(SerializationException.class, () -> serializer.deserialize(bytes));
+    }
+
+    @Test
+    void deserialize_WhenInflatedLengthOversized_ShouldThrowSerializationException() {
+        CachedMovieRedisSerializer serializer =
+                new CachedMovieRedisSerializer(objectMapper, CacheCodecFormat.BINARY, 64, 1_024);
+        entry.getMovie().setDescription("reality ".repeat(200));
+        byte[] valid = serializer.serialize(entry);
+
+        // Deflated body claiming Integer.MAX_VALUE bytes once inflated
+        byte[] huge = entryBytes(1, varLongs(Integer.MAX_VALUE), new byte[]{0});
+
+        assertThrows(SerializationException.class, () -> serializer.deserialize(valid));
+        assertThrows(SerializationException.class, () -> serializer.deserialize(huge));
+    }
+
+    @Test
+    void deserialize_ShouldReadEntriesWrittenAsJson() throws Exception {
+        CachedMovieRedisSerializer serializer =
+                new CachedMovieRedisSerializer(objectMapper, CacheCodecFormat.BINARY, 512, 1_048_576);
+
+        assertEquals(entry, serializer.deserialize(objectMapper.writeValueAsBytes(entry)));
+
+        CachedMovie legacy = serializer.deserialize(objectMapper.writeValueAsBytes(entry.getMovie()));
+        assertEquals(entry.getMovie(), legacy.getMovie());
+    }
+
+    private CachedMovie versioned(long version) {
+        return CachedMovie.builder()
+                .movie(entry.getMovie())
+                .version(version)
+                .expiresAt(entry.getExpiresAt())
+                .recomputeMillis(entry.getRecomputeMillis())
+                .build();
+    }
+
+    /**
+     * The check of the cache's SET_IF_NEWER script: a stored value only holds
+     * off a write when it has the binary header and a newer version
+     */
+    private static boolean setIfNewerWouldWrite(byte[] stored, long version) {
+        if (stored.length < 11 || stored[0] != CachedMovieRedisSerializer.MAGIC || stored[1] < 2) {
+            return true;
+        }
+        return ByteBuffer.wrap(stored, 3, 8).getLong() <= version;
+    }
+
+    /**
+     * A schema 2 entry with the given flags around a hand-built body
+     */
+    private static byte[] entryBytes(int flags, byte[] body, byte[] rest) {
+        ByteBuffer buffer = ByteBuffer.allocate(27 + body.length + rest.length);
+        buffer.put(CachedMovieRedisSerializer.MAGIC).put(CachedMovieRedisSerializer.SCHEMA_V2).put((byte) flags);
+        buffer.putLong(1L).putLong(0L).putLong(0L);
+        buffer.put(body).put(rest);
+        return buffer.array();
+    }
+
+    /**
+     * A body starting with the presence mask, followed by the given varints
+     */
+    private static byte[] body(int mask, long... values) {
+        byte[] varints = varLongs(values);
+        return ByteBuffer.allocate(2 + varints.length).putShort((short) mask).put(varints).array();
+    }
+
+    private static byte[] varLongs(long... values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (long value : values) {
+            long zigZag = (value << 1) ^ (value >> 63);
+            while ((zigZag & ~0x7FL) != 0) {
+                out.write((int) ((zigZag & 0x7F) | 0x80));
+                zigZag >>>= 7;
+            }
+            out.write((int) zigZag);
+        }
+        return out.toByteArray();
+    }
+}
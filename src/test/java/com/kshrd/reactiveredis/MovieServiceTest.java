@@ -1,27 +1,62 @@
 package com.kshrd.reactiveredis;
 
+import com.kshrd.reactiveredis.common.constant.CacheTag;
+import com.kshrd.reactiveredis.common.enumeration.MovieChangeType;
+import com.kshrd.reactiveredis.common.enumeration.MovieSortOrder;
+import com.kshrd.reactiveredis.common.property.MovieDetailsProperties;
+import com.kshrd.reactiveredis.common.property.MovieExportProperties;
+import com.kshrd.reactiveredis.common.property.MovieIngestProperties;
+import com.kshrd.reactiveredis.common.property.MovieReviewProperties;
+import com.kshrd.reactiveredis.model.dto.CachedQueryResult;
+import com.kshrd.reactiveredis.model.dto.CatalogSnapshot;
 import com.kshrd.reactiveredis.model.entity.Movie;
+import com.kshrd.reactiveredis.model.entity.Review;
+import com.kshrd.reactiveredis.model.projection.MovieCursorProjection;
 import com.kshrd.reactiveredis.model.request.MovieRequest;
 import com.kshrd.reactiveredis.model.response.MovieResponse;
+import com.kshrd.reactiveredis.repository.MovieBulkRepository;
 import com.kshrd.reactiveredis.repository.MovieRepository;
 import com.kshrd.reactiveredis.repository.ReviewRepository;
 import com.kshrd.reactiveredis.service.CacheService;
+import com.kshrd.reactiveredis.service.MovieChangeFeed;
+import com.kshrd.reactiveredis.service.MovieExistenceFilter;
+import com.kshrd.reactiveredis.service.MovieSecondaryIndex;
 import com.kshrd.reactiveredis.service.MovieService;
+import com.kshrd.reactiveredis.service.QueryResultCache;
+import com.kshrd.reactiveredis.service.RequestCoalescer;
+import com.kshrd.reactiveredis.service.TitleSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +71,45 @@ class MovieServiceTest {
     @Mock
     private CacheService cacheService;
 
+    @Mock
+    private MovieBulkRepository movieBulkRepository;
+
+    @Mock
+    private MovieSecondaryIndex movieSecondaryIndex;
+
+    @Mock
+    private TitleSearchIndex titleSearchIndex;
+
+    @Mock
+    private MovieChangeFeed movieChangeFeed;
+
+    @Mock
+    private QueryResultCache queryResultCache;
+
+    @Mock
+    private MovieExistenceFilter movieExistenceFilter;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Spy
+    private MovieIngestProperties ingestProperties = new MovieIngestProperties();
+
+    @Spy
+    private MovieExportProperties exportProperties = new MovieExportProperties();
+
+    @Spy
+    private MovieDetailsProperties detailsProperties = new MovieDetailsProperties();
+
+    @Spy
+    private MovieReviewProperties reviewProperties = new MovieReviewProperties();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private RequestCoalescer requestCoalescer = new RequestCoalescer(new SimpleMeterRegistry());
+
     @InjectMocks
     private MovieService movieService;
 
@@ -71,10 +145,17 @@ class MovieServiceTest {
     @Test
     void createMovie_ShouldReturnMovieResponse() {
         // Given
+        when(transactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
         when(movieRepository.save(any(Movie.class))).thenReturn(Mono.just(testMovie));
         when(cacheService.cacheMovie(anyLong(), any(MovieResponse.class), any()))
                 .thenReturn(Mono.just(true));
+        when(movieSecondaryIndex.add(any())).thenReturn(Mono.empty());
+        when(movieExistenceFilter.added(List.of(1L))).thenReturn(Mono.empty());
+        when(movieChangeFeed.publish(eq(MovieChangeType.CREATED), eq(1L), any())).thenReturn(Mono.empty());
         when(cacheService.invalidateAllMovies()).thenReturn(Mono.just(true));
+        when(cacheService.invalidateTags(any())).thenReturn(Mono.just(0L));
+        when(queryResultCache.invalidate(any())).thenReturn(Mono.empty());
 
         // When & Then
         StepVerifier.create(movieService.createMovie(testRequest))
@@ -88,18 +169,161 @@ class MovieServiceTest {
     }
 
     @Test
-    void getAllMovies_WhenCacheEmpty_ShouldFetchFromDatabase() {
+    void bulkCreateMovies_ShouldInsertPerBatchAndReportInvalidLines() {
+        // Given
+        ingestProperties.setBatchSize(2);
+        MovieRequest invalid = MovieRequest.builder().title(" ").rating(BigDecimal.valueOf(11)).build();
+        Movie second = Movie.builder().id(2L).title("Second Movie").build();
+        when(movieBulkRepository.insertAll(anyList()))
+                .thenReturn(Flux.just(testMovie))
+                .thenReturn(Flux.just(second));
+        when(cacheService.cacheMovies(any(), any(), any())).thenReturn(Mono.just(1L));
+        when(movieSecondaryIndex.addAll(any())).thenReturn(Mono.empty());
+        when(movieExistenceFilter.added(any())).thenReturn(Mono.empty());
+        when(movieChangeFeed.publishAll(eq(MovieChangeType.CREATED), any())).thenReturn(Mono.empty());
+        when(cacheService.invalidateAllMovies()).thenReturn(Mono.just(true));
+        when(cacheService.invalidateTags(any())).thenReturn(Mono.just(0L));
+        when(queryResultCache.invalidate(any())).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(movieService.bulkCreateMovies(Flux.just(testRequest, invalid, testRequest)))
+                .expectNextMatches(progress ->
+                        progress.getBatch() == 1 &&
+                                progress.getInserted() == 1 &&
+                                progress.getRejected() == 1 &&
+                                progress.getErrors().get(0).getLine() == 2
+                )
+                .expectNextMatches(progress ->
+                        progress.getBatch() == 2 &&
+                                progress.getTotalInserted() == 2 &&
+                                progress.getTotalRejected() == 1
+                )
+                .verifyComplete();
+
+        verify(movieBulkRepository, times(2)).insertAll(argThat(movies -> movies.size() == 1));
+        verify(movieRepository, never()).save(any(Movie.class));
+        verify(cacheService, times(2)).invalidateAllMovies();
+    }
+
+    @Test
+    void getAllMovies_WhenCatalogIndexMissing_ShouldRebuildFromDatabase() {
         // Given
-        when(cacheService.getAllCachedMovies()).thenReturn(Flux.empty());
-        when(movieRepository.findAll()).thenReturn(Flux.just(testMovie));
-        when(cacheService.cacheAllMovies(any(), any())).thenReturn(Mono.just(true));
+        CatalogSnapshot snapshot = new CatalogSnapshot("movies:index", 1);
+        when(cacheService.getCatalogSnapshot(any())).thenReturn(Mono.empty());
+        when(cacheService.getCatalogSnapshot()).thenReturn(Mono.just(snapshot));
+        when(cacheService.rebuildCatalogWithLease(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(movieRepository.findAllIds()).thenReturn(Flux.just(1L));
+        when(cacheService.catalogRebuildStart()).thenReturn(Mono.just(1L));
+        when(cacheService.cacheCatalogIndex(any(), any(), any(), anyLong())).thenReturn(Mono.just(true));
+        when(cacheService.getCatalogPageIds(eq(snapshot), anyLong(), anyInt()))
+                .thenReturn(Mono.just(List.of(1L)));
+        when(cacheService.getCachedMovies(any())).thenReturn(Mono.just(Map.of()));
+        when(movieRepository.findAllById(anyIterable())).thenReturn(Flux.just(testMovie));
+        when(cacheService.cacheMovies(any(), any(), any())).thenReturn(Mono.just(1L));
 
         // When & Then
         StepVerifier.create(movieService.getAllMovies())
-                .expectNextCount(1)
+                .expectNextMatches(response -> response.getId().equals(1L))
+                .verifyComplete();
+
+        verify(movieRepository, times(1)).findAllIds();
+        verify(movieRepository, never()).findAll();
+    }
+
+    @Test
+    void getMoviePage_WhenEntriesCached_ShouldNotQueryDatabase() {
+        // Given
+        CatalogSnapshot snapshot = new CatalogSnapshot("movies:index", 45);
+        MovieResponse cachedResponse = MovieResponse.builder()
+                .id(21L)
+                .title("Cached Movie")
+                .build();
+        when(cacheService.getCatalogSnapshot(any())).thenReturn(Mono.just(snapshot));
+        when(cacheService.getCatalogPageIds(snapshot, 20L, 20)).thenReturn(Mono.just(List.of(21L)));
+        when(cacheService.getCachedMovies(List.of(21L))).thenReturn(Mono.just(Map.of(21L, cachedResponse)));
+
+        // When & Then
+        StepVerifier.create(movieService.getMoviePage(2, 20, false))
+                .expectNextMatches(page ->
+                        page.items().equals(List.of(cachedResponse)) &&
+                                page.pagination().totalElements() == 45 &&
+                                page.pagination().totalPages() == 3
+                )
                 .verifyComplete();
 
-        verify(movieRepository, times(1)).findAll();
+        verifyNoInteractions(movieRepository);
+    }
+
+    @Test
+    void getMoviesAfter_InRatingOrder_ShouldContinueIntoUnratedMoviesWithKeysetCursor() {
+        // Given
+        MovieResponse rated = MovieResponse.builder().id(4L).title("Rated").build();
+        MovieResponse unrated = MovieResponse.builder().id(6L).title("Unrated").build();
+        when(cacheService.getCachedMoviePage("movies:page:rating:8.5:1:2")).thenReturn(Mono.empty());
+        when(movieRepository.findPageAfterRating(new BigDecimal("8.5"), 1L, 3))
+                .thenReturn(Flux.just(cursorRow(4L, new BigDecimal("7.0"))));
+        when(movieRepository.findUnratedPageAfterId(0L, 3))
+                .thenReturn(Flux.just(cursorRow(6L, null), cursorRow(9L, null)));
+        when(cacheService.cacheMoviePage(eq("movies:page:rating:8.5:1:2"), any(), any(), eq(List.of(CacheTag.RATING_ORDER))))
+                .thenReturn(Mono.just(true));
+        when(cacheService.getCachedMovies(List.of(4L, 6L))).thenReturn(Mono.just(Map.of(4L, rated, 6L, unrated)));
+
+        // When & Then
+        StepVerifier.create(movieService.getMoviesAfter(MovieSortOrder.RATING, "8.5:1", 2, false))
+                .expectNextMatches(page ->
+                        page.items().equals(List.of(rated, unrated)) &&
+                                "null:6".equals(page.pagination().nextCursor()) &&
+                                page.pagination().hasNext()
+                )
+                .verifyComplete();
+
+        verify(movieRepository, never()).findAll();
+    }
+
+    @Test
+    void exportMovies_ShouldPullRowsInFetchSizedBatchesAsTheClientDemands() {
+        // Given
+        exportProperties.setFetchSize(50);
+        List<Long> requested = new ArrayList<>();
+        when(movieBulkRepository.streamAfter(0L, 50)).thenReturn(Flux.range(1, 1_000)
+                .map(i -> Movie.builder().id((long) i).title("Movie " + i).build())
+                .doOnRequest(requested::add));
+
+        // When & Then
+        StepVerifier.create(movieService.exportMovies(0L), 0)
+                .thenRequest(10)
+                .expectNextCount(10)
+                .thenCancel()
+                .verify();
+
+        assertTrue(requested.stream().allMatch(n -> n <= 50));
+        assertEquals(50L, requested.stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void getMoviesByIds_ShouldLoadOnlyMissesAndKeepRequestOrder() {
+        // Given
+        MovieResponse cachedResponse = MovieResponse.builder()
+                .id(2L)
+                .title("Cached Movie")
+                .build();
+        when(cacheService.getCachedMovies(List.of(2L, 1L, 3L)))
+                .thenReturn(Mono.just(Map.of(2L, cachedResponse)));
+        when(movieRepository.findAllById(List.of(1L, 3L))).thenReturn(Flux.just(testMovie));
+        when(cacheService.cacheMovies(any(), any(), any())).thenReturn(Mono.just(1L));
+
+        // When & Then
+        StepVerifier.create(movieService.getMoviesByIds(List.of(2L, 1L, 3L, 2L)))
+                .expectNextMatches(movies ->
+                        movies.size() == 2 &&
+                                movies.get(0).getId().equals(2L) &&
+                                movies.get(1).getId().equals(1L)
+                )
+                .verifyComplete();
+
+        verify(movieRepository, times(1)).findAllById(List.of(1L, 3L));
+        verify(cacheService, times(1)).cacheMovies(any(), any(), any());
     }
 
     @Test
@@ -110,7 +334,7 @@ class MovieServiceTest {
                 .title("Test Movie")
                 .build();
 
-        when(cacheService.getCachedMovie(1L)).thenReturn(Mono.just(cachedResponse));
+        when(cacheService.getCachedMovie(eq(1L), any())).thenReturn(Mono.just(cachedResponse));
 
         // When & Then
         StepVerifier.create(movieService.getMovieById(1L))
@@ -123,9 +347,10 @@ class MovieServiceTest {
     @Test
     void getMovieById_WhenNotCached_ShouldFetchFromDatabase() {
         // Given
-        when(cacheService.getCachedMovie(1L)).thenReturn(Mono.empty());
+        when(cacheService.getCachedMovie(eq(1L), any())).thenReturn(Mono.empty());
+        when(movieExistenceFilter.mightExist(1L)).thenReturn(Mono.just(true));
         when(movieRepository.findById(1L)).thenReturn(Mono.just(testMovie));
-        when(cacheService.cacheMovie(anyLong(), any(MovieResponse.class), any()))
+        when(cacheService.cacheMovie(anyLong(), any(MovieResponse.class), any(), any()))
                 .thenReturn(Mono.just(true));
 
         // When & Then
@@ -134,24 +359,266 @@ class MovieServiceTest {
                 .verifyComplete();
 
         verify(movieRepository, times(1)).findById(1L);
-        verify(cacheService, times(1)).cacheMovie(anyLong(), any(), any());
+        verify(cacheService, times(1)).cacheMovie(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void getMovieById_WhenFilterRulesIdOut_ShouldNotQueryDatabase() {
+        // Given
+        when(cacheService.getCachedMovie(eq(404L), any())).thenReturn(Mono.empty());
+        when(movieExistenceFilter.mightExist(404L)).thenReturn(Mono.just(false));
+
+        // When & Then
+        StepVerifier.create(movieService.getMovieById(404L))
+                .expectErrorMessage("Movie not found with ID: 404")
+                .verify();
+
+        verify(movieRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getMovieById_WhenConcurrentMisses_ShouldFetchFromDatabaseOnce() {
+        // Given
+        when(cacheService.getCachedMovie(eq(1L), any())).thenReturn(Mono.empty());
+        when(movieExistenceFilter.mightExist(1L)).thenReturn(Mono.just(true));
+        when(movieRepository.findById(1L))
+                .thenReturn(Mono.just(testMovie).delayElement(Duration.ofMillis(100)));
+        when(cacheService.cacheMovie(anyLong(), any(MovieResponse.class), any(), any()))
+                .thenReturn(Mono.just(true));
+
+        // When & Then
+        StepVerifier.create(Mono.zip(movieService.getMovieById(1L), movieService.getMovieById(1L)))
+                .expectNextMatches(pair ->
+                        pair.getT1().getId().equals(1L) && pair.getT2().getId().equals(1L)
+                )
+                .verifyComplete();
+
+        verify(movieRepository, times(1)).findById(1L);
+        verify(cacheService, times(1)).cacheMovie(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void getMovieDetails_WhenAPartTimesOut_ShouldServeTheRestWithoutCachingIt() {
+        // Given
+        detailsProperties.setPartTimeout(Duration.ofMillis(50));
+        MovieResponse cachedResponse = MovieResponse.builder().id(1L).title("Test Movie").build();
+        Review review = Review.builder().id(7L).movieId(1L).reviewerName("Jane").rating(5).build();
+        when(cacheService.getCachedMovieDetails(1L)).thenReturn(Mono.empty());
+        when(cacheService.getCachedMovie(eq(1L), any())).thenReturn(Mono.just(cachedResponse));
+        when(reviewRepository.findLatestByMovieId(1L, 10)).thenReturn(Flux.just(review));
+        when(reviewRepository.countByMovieId(1L)).thenReturn(Mono.just(1L));
+        when(reviewRepository.calculateAverageRating(1L)).thenReturn(Mono.never());
+
+        // When & Then
+        StepVerifier.create(movieService.getMovieDetails(1L))
+                .expectNextMatches(details -> details.isPartial()
+                        && details.getMovie() == cachedResponse
+                        && details.getReviews().size() == 1
+                        && details.getReviewCount() == 1L
+                        && details.getAverageReviewRating() == null)
+                .verifyComplete();
+
+        verify(cacheService, never()).cacheMovieDetails(any(), any());
+    }
+
+    @Test
+    void getMoviesByGenre_WhenIndexReady_ShouldNotQueryDatabase() {
+        // Given
+        MovieResponse cachedResponse = MovieResponse.builder()
+                .id(1L)
+                .title("Test Movie")
+                .genre("Action")
+                .build();
+        CachedQueryResult miss = new CachedQueryResult("movies:query:genre:Action:0:", null);
+        when(queryResultCache.lookup(QueryResultCache.genre("Action"), "")).thenReturn(Mono.just(miss));
+        when(queryResultCache.store(miss, List.of(1L))).thenReturn(Mono.just(true));
+        when(movieSecondaryIndex.genreIds("Action")).thenReturn(Mono.just(List.of(1L)));
+        when(cacheService.getCachedMovies(List.of(1L))).thenReturn(Mono.just(Map.of(1L, cachedResponse)));
+
+        // When & Then
+        StepVerifier.create(movieService.getMoviesByGenre("Action", false))
+                .expectNext(cachedResponse)
+                .verifyComplete();
+
+        verify(movieRepository, never()).findByGenre(any());
+    }
+
+    @Test
+    void getMoviesByGenre_WhenIndexedMovieMovedGenre_ShouldDropAndPruneIt() {
+        // Given
+        MovieResponse action = MovieResponse.builder().id(1L).title("Test Movie").genre("Action").build();
+        MovieResponse moved = MovieResponse.builder().id(2L).title("Moved Movie").genre("Drama").build();
+        CachedQueryResult miss = new CachedQueryResult("movies:query:genre:Action:0:", null);
+        when(queryResultCache.lookup(QueryResultCache.genre("Action"), "")).thenReturn(Mono.just(miss));
+        when(queryResultCache.store(miss, List.of(1L))).thenReturn(Mono.just(true));
+        when(movieSecondaryIndex.genreIds("Action")).thenReturn(Mono.just(List.of(1L, 2L)));
+        when(cacheService.getCachedMovies(List.of(1L, 2L))).thenReturn(Mono.just(Map.of(1L, action, 2L, moved)));
+        when(movieSecondaryIndex.prune(List.of(), "Action")).thenReturn(Mono.empty());
+        when(movieSecondaryIndex.pruneGenre(List.of(2L), "Action")).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(movieService.getMoviesByGenre("Action", false))
+                .expectNext(action)
+                .verifyComplete();
+
+        verify(movieSecondaryIndex, times(1)).pruneGenre(List.of(2L), "Action");
+    }
+
+    @Test
+    void searchByTitle_WhenIndexReady_ShouldResolveRankedIdsWithoutDatabaseScan() {
+        // Given
+        MovieResponse exact = MovieResponse.builder().id(2L).title("Matrix").build();
+        MovieResponse contains = MovieResponse.builder().id(1L).title("The Matrix Reloaded").build();
+        when(titleSearchIndex.isReady()).thenReturn(true);
+        when(titleSearchIndex.search("matrix")).thenReturn(List.of(2L, 1L));
+        when(cacheService.getCachedMovies(List.of(2L, 1L)))
+                .thenReturn(Mono.just(Map.of(1L, contains, 2L, exact)));
+
+        // When & Then
+        StepVerifier.create(movieService.searchByTitle("matrix", false))
+                .expectNext(exact, contains)
+                .verifyComplete();
+
+        verify(movieRepository, never()).findByTitleContainingIgnoreCase(any());
+        verify(queryResultCache, never()).lookup(any(), any());
+    }
+
+    @Test
+    void searchByTitle_WithTermShorterThanTrigram_ShouldRejectWithoutSearching() {
+        // When & Then
+        StepVerifier.create(movieService.searchByTitle(" a ", false))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(titleSearchIndex, never()).search(any());
+        verify(queryResultCache, never()).lookup(any(), any());
+    }
+
+    @Test
+    void searchByTitle_WhenResultCached_ShouldServeNormalizedTermWithoutSearching() {
+        // Given
+        MovieResponse matrix = MovieResponse.builder().id(2L).title("Matrix").build();
+        when(queryResultCache.lookup(QueryResultCache.SEARCH, "matrix"))
+                .thenReturn(Mono.just(new CachedQueryResult("movies:query:search:3:matrix", List.of(2L))));
+        when(cacheService.getCachedMovies(List.of(2L))).thenReturn(Mono.just(Map.of(2L, matrix)));
+
+        // When & Then
+        StepVerifier.create(movieService.searchByTitle("  MaTrix ", false))
+                .expectNext(matrix)
+                .verifyComplete();
+
+        verify(titleSearchIndex, never()).search(any());
+        verify(movieRepository, never()).findByTitleContainingIgnoreCase(any());
+    }
+
+    @Test
+    void searchByTitle_WithReviews_ShouldLoadReviewsForAllResultsInOneQuery() {
+        // Given
+        MovieResponse first = MovieResponse.builder().id(2L).title("Matrix").build();
+        MovieResponse second = MovieResponse.builder().id(1L).title("The Matrix Reloaded").build();
+        Review review = Review.builder().id(7L).movieId(1L).reviewerName("Jane").rating(4).build();
+        when(queryResultCache.lookup(QueryResultCache.SEARCH, "matrix"))
+                .thenReturn(Mono.just(new CachedQueryResult("movies:query:search:3:matrix", List.of(2L, 1L))));
+        when(cacheService.getCachedMovies(List.of(2L, 1L))).thenReturn(Mono.just(Map.of(1L, second, 2L, first)));
+        when(reviewRepository.findLatestByMovieIds(List.of(2L, 1L), 3)).thenReturn(Flux.just(review));
+
+        // When & Then
+        StepVerifier.create(movieService.searchByTitle("matrix", true))
+                .expectNextMatches(movie -> movie.getId().equals(2L) && movie.getReviews().isEmpty())
+                .expectNextMatches(movie -> movie.getId().equals(1L) && movie.getReviews().size() == 1)
+                .verifyComplete();
+
+        // Cached instances are shared, so they must be left without reviews
+        assertTrue(first.getReviews() == null && second.getReviews() == null);
+        verify(reviewRepository, times(1)).findLatestByMovieIds(any(), anyInt());
+        verify(reviewRepository, never()).findByMovieId(anyLong());
+    }
+
+    @Test
+    void getTopRatedMovies_WhenIndexNotReady_ShouldFallBackToDatabase() {
+        // Given
+        CachedQueryResult miss = new CachedQueryResult("movies:query:top-rated:0:10", null);
+        when(queryResultCache.limitBucket(5)).thenReturn(10);
+        when(queryResultCache.lookup(QueryResultCache.TOP_RATED, "10")).thenReturn(Mono.just(miss));
+        when(queryResultCache.store(miss, List.of(1L))).thenReturn(Mono.just(true));
+        when(movieSecondaryIndex.topRatedIds(10)).thenReturn(Mono.empty());
+        when(movieRepository.findTopRatedMovies(10)).thenReturn(Flux.just(testMovie));
+
+        // When & Then
+        StepVerifier.create(movieService.getTopRatedMovies(5, false))
+                .expectNextMatches(response -> response.getId().equals(1L))
+                .verifyComplete();
+    }
+
+    @Test
+    void updateMovie_ShouldWriteNewVersionThroughInsteadOfInvalidating() {
+        // Given
+        Movie saved = Movie.builder()
+                .id(1L)
+                .title("Updated Movie")
+                .genre("Drama")
+                .updatedAt(LocalDateTime.now())
+                .build();
+        when(movieRepository.findById(1L)).thenReturn(Mono.just(testMovie));
+        when(movieBulkRepository.update(any(Movie.class))).thenReturn(Mono.just(saved));
+        when(cacheService.writeThroughMovie(argThat(movie -> movie.getTitle().equals("Updated Movie")), any()))
+                .thenReturn(Mono.just(true));
+        when(movieSecondaryIndex.update(eq("Action"), any())).thenReturn(Mono.empty());
+        when(cacheService.invalidateTags(any())).thenReturn(Mono.just(0L));
+        when(queryResultCache.invalidate(any())).thenReturn(Mono.empty());
+        when(movieChangeFeed.publish(eq(MovieChangeType.UPDATED), eq(1L), any())).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(movieService.updateMovie(1L, testRequest))
+                .expectNextMatches(response -> response.getTitle().equals("Updated Movie"))
+                .verifyComplete();
+
+        verify(cacheService, never()).invalidateMovie(anyLong());
+        verify(movieRepository, never()).save(any(Movie.class));
+        verify(queryResultCache, times(1)).invalidate(Set.of(QueryResultCache.SEARCH, QueryResultCache.TOP_RATED,
+                QueryResultCache.genre("Action"), QueryResultCache.genre("Drama")));
     }
 
     @Test
     void deleteMovie_ShouldInvalidateCacheAndDeleteFromDatabase() {
         // Given
+        when(transactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
         when(movieRepository.findById(1L)).thenReturn(Mono.just(testMovie));
         when(reviewRepository.deleteByMovieId(1L)).thenReturn(Mono.empty());
         when(movieRepository.deleteById(1L)).thenReturn(Mono.empty());
-        when(cacheService.invalidateMovie(1L)).thenReturn(Mono.just(true));
+        when(movieSecondaryIndex.remove(1L, "Action")).thenReturn(Mono.empty());
+        when(cacheService.tombstoneMovie(eq(1L), any())).thenReturn(Mono.just(true));
+        when(movieExistenceFilter.markDeleted(1L)).thenReturn(Mono.empty());
         when(cacheService.invalidateAllMovies()).thenReturn(Mono.just(true));
+        when(cacheService.invalidateTags(any())).thenReturn(Mono.just(0L));
+        when(queryResultCache.invalidate(any())).thenReturn(Mono.empty());
+        when(movieChangeFeed.publish(MovieChangeType.DELETED, 1L, null)).thenReturn(Mono.empty());
 
         // When & Then
         StepVerifier.create(movieService.deleteMovie(1L))
                 .verifyComplete();
 
         verify(movieRepository, times(1)).deleteById(1L);
-        verify(cacheService, times(1)).invalidateMovie(1L);
+        verify(movieSecondaryIndex, times(1)).remove(1L, "Action");
+        verify(cacheService, times(1)).tombstoneMovie(eq(1L), any());
+        verify(movieExistenceFilter, times(1)).markDeleted(1L);
         verify(cacheService, times(1)).invalidateAllMovies();
+        verify(movieChangeFeed, times(1)).publish(MovieChangeType.DELETED, 1L, null);
+        verify(cacheService, times(1)).invalidateTags(CacheTag.deleted(1L, "Action"));
+    }
+
+    private static MovieCursorProjection cursorRow(Long id, BigDecimal rating) {
+        return new MovieCursorProjection() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public BigDecimal getRating() {
+                return rating;
+            }
+        };
     }
 }
@@ -0,0 +1,112 @@
+package com.kshrd.reactiveredis;
+
+import com.kshrd.reactiveredis.common.property.MovieSearchProperties;
+import com.kshrd.reactiveredis.model.response.MovieSuggestion;
+import com.kshrd.reactiveredis.repository.MovieRepository;
+import com.kshrd.reactiveredis.service.CacheInvalidationBroadcaster;
+import com.kshrd.reactiveredis.service.TitleSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TitleSearchIndexTest {
+
+    private TitleSearchIndex index;
+
+    private CacheInvalidationBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = mock(CacheInvalidationBroadcaster.class);
+        index = new TitleSearchIndex(
+                mock(MovieRepository.class),
+                broadcaster,
+                new MovieSearchProperties());
+
+        index.put(1L, "The Matrix Reloaded", new BigDecimal("7.2"));
+        index.put(2L, "Matrix", new BigDecimal("8.7"));
+        index.put(3L, "Matrix Resurrections", new BigDecimal("5.7"));
+        index.put(4L, "Animatrix", new BigDecimal("7.3"));
+        index.put(5L, "Inception", new BigDecimal("8.8"));
+    }
+
+    @Test
+    void search_ShouldRankExactThenPrefixThenWordThenSubstring() {
+        assertEquals(List.of(2L, 3L, 1L, 4L), index.search("MATRIX"));
+    }
+
+    @Test
+    void search_ShouldFollowUpdatesAndRemovals() {
+        index.put(5L, "Matrix Origins", new BigDecimal("6.1"));
+        index.remove(3L);
+
+        assertEquals(List.of(2L, 5L, 1L, 4L), index.search("matrix"));
+        assertEquals(List.of(), index.search("inception"));
+    }
+
+    @Test
+    void search_WithTermShorterThanTrigram_ShouldMatchNothing() {
+        assertEquals(List.of(), index.search("on"));
+        assertEquals(List.of(), index.search(" "));
+    }
+
+    @Test
+    void suggest_ShouldReturnBestRatedWordPrefixMatches() {
+        assertEquals(List.of(2L, 1L), ids(index.suggest("Mat", 2)));
+        assertEquals(List.of(1L, 3L), ids(index.suggest("re", 10)));
+    }
+
+    @Test
+    void suggest_ShouldFollowUpdatesAndRemovals() {
+        assertEquals(List.of(2L, 1L, 3L), ids(index.suggest("m", 10)));
+
+        index.put(5L, "Matrix Origins", new BigDecimal("9.1"));
+        index.remove(2L);
+
+        assertEquals(List.of(5L, 1L, 3L), ids(index.suggest("m", 10)));
+    }
+
+    @Test
+    void suggest_WhenBestOfFullBucketRemoved_ShouldRefillFromLexicon() {
+        for (long id = 100; id < 125; id++) {
+            index.put(id, "Star " + id, BigDecimal.valueOf(id));
+        }
+
+        assertEquals(124L, index.suggest("st", 20).get(0).getId());
+        assertEquals(105L, index.suggest("st", 20).get(19).getId());
+
+        index.remove(124L);
+
+        assertEquals(123L, index.suggest("st", 20).get(0).getId());
+        assertEquals(104L, index.suggest("st", 20).get(19).getId());
+    }
+
+    @Test
+    void addedAll_ShouldIndexBatchAndPublishOneMessage() {
+        when(broadcaster.publishMovies(any())).thenReturn(Mono.just(1L));
+
+        index.addedAll(List.of(
+                new MovieSuggestion(6L, "Matrix Origins", new BigDecimal("6.1")),
+                new MovieSuggestion(7L, "Matrix Legacy", new BigDecimal("6.4"))));
+
+        assertEquals(List.of(6L), index.search("origins"));
+        assertEquals(List.of(7L), index.search("legacy"));
+        verify(broadcaster, times(1)).publishMovies(List.of(6L, 7L));
+        verify(broadcaster, never()).publishMovie(any());
+    }
+
+    private static List<Long> ids(List<MovieSuggestion> suggestions) {
+        return suggestions.stream().map(MovieSuggestion::getId).toList();
+    }
+}